@@ -1,13 +1,18 @@
 package li.jeffrey.binarytrees;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 
 /**
  * This class implements a Binary Search Tree (BST) of any comparable data type. It supports add(), remove(),
  * contains(), size(), isEmpty(), and height() as well as iterators for each of the following traversals: Inorder traversal,
- * Preorder traversal, Postorder traversal, and Levelorder traversal.
+ * Preorder traversal, Postorder traversal, and Levelorder traversal. Batches of sorted keys can be looked up and added
+ * in a single pass over the tree with containsAll() and addAll(). Its memory footprint
+ * and shape can be estimated with memoryStats().
  *
  * @author Jeffrey Li
  */
@@ -120,6 +125,108 @@ public class BinarySearchTree<T extends Comparable<T>> {
         }
     }
 
+    public BitSet containsAll(List<T> sortedBatch) {
+        BitSet result = new BitSet(sortedBatch.size());
+        requireSorted(sortedBatch);
+        containsAllHelper(root, sortedBatch, 0, sortedBatch.size(), result);
+        return result;
+    }
+
+    // Walks the tree and the batch together: each node splits the batch into the keys that belong to its left and
+    // right subtrees, so a subtree is entered at most once per batch instead of once per key
+    private void containsAllHelper(Node node, List<T> batch, int from, int to, BitSet result) {
+        if (node == null || from >= to) {
+            return;
+        }
+        int split = lowerBound(batch, from, to, node.data);
+        containsAllHelper(node.left, batch, from, split, result);
+        while (split < to && batch.get(split).compareTo(node.data) == 0) {
+            result.set(split);
+            split++;
+        }
+        containsAllHelper(node.right, batch, split, to, result);
+    }
+
+    // Index of the first key in batch[from, to) not less than data, galloping from the front so that keys close to
+    // the previous position are found in O(log distance)
+    private int lowerBound(List<T> batch, int from, int to, T data) {
+        int bound = 1;
+        while (from + bound - 1 < to && batch.get(from + bound - 1).compareTo(data) < 0) {
+            bound <<= 1;
+        }
+        int low = from + (bound >> 1);
+        int high = Math.min(from + bound - 1, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (batch.get(mid).compareTo(data) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void requireSorted(List<T> batch) {
+        T previous = null;
+        for (T data : batch) {
+            if (data == null) {
+                throw new IllegalArgumentException("Batch must not contain null");
+            }
+            if (previous != null && previous.compareTo(data) > 0) {
+                throw new IllegalArgumentException("Batch must be sorted in ascending order");
+            }
+            previous = data;
+        }
+    }
+
+    private List<T> distinct(List<T> sortedBatch) {
+        List<T> result = new ArrayList<T>(sortedBatch.size());
+        for (T data : sortedBatch) {
+            if (result.isEmpty() || result.get(result.size() - 1).compareTo(data) != 0) {
+                result.add(data);
+            }
+        }
+        return result;
+    }
+
+    public int addAll(List<T> sortedBatch) {
+        requireSorted(sortedBatch);
+        List<T> batch = distinct(sortedBatch);
+        int before = size;
+        root = addAllHelper(root, batch, 0, batch.size());
+        return size - before;
+    }
+
+    private Node addAllHelper(Node current, List<T> batch, int from, int to) {
+        if (from >= to) {
+            return current;
+        }
+        if (current == null) {
+            // Everything left in the range falls into the same empty spot, so hang it there as a balanced subtree
+            return buildHelper(batch, from, to - 1);
+        }
+        int split = lowerBound(batch, from, to, current.data);
+        current.left = addAllHelper(current.left, batch, from, split);
+        if (split < to && batch.get(split).compareTo(current.data) == 0) {
+            split++;
+        }
+        current.right = addAllHelper(current.right, batch, split, to);
+        return current;
+    }
+
+    private Node buildHelper(List<T> batch, int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        Node node = new Node(batch.get(mid));
+        size++;
+        node.left = buildHelper(batch, low, mid - 1);
+        node.right = buildHelper(batch, mid + 1, high);
+        return node;
+    }
+
     public int size() {
         return size;
     }
@@ -139,6 +246,62 @@ public class BinarySearchTree<T extends Comparable<T>> {
         return Math.max(heightHelper(node.left), heightHelper(node.right)) + 1;
     }
 
+    public MemoryStats memoryStats() {
+        return memoryStats(key -> 0);
+    }
+
+    // Walks the nodes once with an explicit stack, so a degenerate tree cannot overflow the call stack
+    public MemoryStats memoryStats(KeySizer<? super T> sizer) {
+        long keyBytes = 0;
+        long depthSum = 0;
+        int height = 0;
+        Stack<Node> nodes = new Stack<Node>();
+        Stack<Integer> depths = new Stack<Integer>();
+        if (root != null) {
+            nodes.push(root);
+            depths.push(1);
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int depth = depths.pop();
+            keyBytes += sizer.sizeOf(node.data);
+            depthSum += depth;
+            height = Math.max(height, depth);
+            if (node.left != null) {
+                nodes.push(node.left);
+                depths.push(depth + 1);
+            }
+            if (node.right != null) {
+                nodes.push(node.right);
+                depths.push(depth + 1);
+            }
+        }
+        // Node holds references to data, left, right, and the enclosing tree
+        return new MemoryStats(size, ObjectLayout.instanceSize(4), keyBytes, height, depthSum, false, 0);
+    }
+
+    // Checks that every node lies strictly between its ancestors; used by tests
+    boolean isValid() {
+        Stack<Node> nodes = new Stack<Node>();
+        T previous = null;
+        Node node = root;
+        int count = 0;
+        while (node != null || !nodes.isEmpty()) {
+            while (node != null) {
+                nodes.push(node);
+                node = node.left;
+            }
+            node = nodes.pop();
+            if (previous != null && previous.compareTo(node.data) >= 0) {
+                return false;
+            }
+            previous = node.data;
+            count++;
+            node = node.right;
+        }
+        return count == size;
+    }
+
     /* Print function from GeeksForGeeks */
     int COUNT = 10;
 
@@ -190,21 +353,17 @@ public class BinarySearchTree<T extends Comparable<T>> {
     private Iterator<T> inOrderTraversal() {
         Stack<Node> stack = new Stack<Node>();
         LinkedList<Node> queue = new LinkedList<Node>();
-        if (root != null) {
-            stack.push(root);
-        }
-        while (!stack.isEmpty()) {
-            Node node = stack.pop();
-            if (node.left != null && !queue.contains(node.left)) {
+        // Push the left spine, then visit each node before walking into its right subtree, so that no node has to be
+        // looked up in the queue to know whether it was visited
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
                 stack.push(node);
-                stack.push(node.left);
-                continue;
+                node = node.left;
             }
-            if (node.right != null && !queue.contains(node.right)) {
-                stack.push(node.right);
-            }
-
+            node = stack.pop();
             queue.add(node);
+            node = node.right;
         }
 
         return new Iterator<T>() {
@@ -0,0 +1,146 @@
+package li.jeffrey.binarytrees;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a write buffered Red Black Tree of any comparable data type. Inserts are first collected in a
+ * small sorted buffer and joined into the underlying Red Black Tree in bulk once the buffer reaches its threshold, so
+ * bursts of inserts do not pay for rebalancing one element at a time. Only keys that are in neither the buffer nor the
+ * tree are buffered, so size() is exact without flushing. It supports insert(), contains(), flush(),
+ * size(), isEmpty(), and height() as well as iterators for each of the traversals of RedBlackTree, along with the
+ * number of flushes and the time spent flushing.
+ *
+ * @author Jeffrey Li
+ */
+public class BufferedRedBlackTree<T extends Comparable<T>> {
+
+    // Random keys in a large tree share few paths, so a flush only beats single inserts once it carries thousands
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private final RedBlackTree<T> tree;
+    private final ArrayList<T> buffer;
+    private final int threshold;
+    private long flushCount;
+    private long lastFlushNanos;
+    private long totalFlushNanos;
+
+    public BufferedRedBlackTree() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public BufferedRedBlackTree(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.tree = new RedBlackTree<T>();
+        this.buffer = new ArrayList<T>(threshold);
+        this.threshold = threshold;
+    }
+
+    public boolean insert(T data) {
+        if (data == null) {
+            return false;
+        }
+        int index = Collections.binarySearch(buffer, data);
+        if (index >= 0 || tree.contains(data)) {
+            return false;
+        }
+        buffer.add(-index - 1, data);
+        if (buffer.size() >= threshold) {
+            flush();
+        }
+        return true;
+    }
+
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        tree.insertAll(buffer);
+        buffer.clear();
+        lastFlushNanos = System.nanoTime() - start;
+        totalFlushNanos += lastFlushNanos;
+        flushCount++;
+    }
+
+    public boolean contains(T data) {
+        if (data == null) {
+            return false;
+        }
+        return Collections.binarySearch(buffer, data) >= 0 || tree.contains(data);
+    }
+
+    public int size() {
+        return tree.size() + buffer.size();
+    }
+
+    public boolean isEmpty() {
+        return tree.isEmpty() && buffer.isEmpty();
+    }
+
+    public int height() {
+        return tree.height();
+    }
+
+    public int bufferedCount() {
+        return buffer.size();
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    public long getTotalFlushNanos() {
+        return totalFlushNanos;
+    }
+
+    public Iterator<T> traverse(String order) {
+        if (order.equals("INORDER")) {
+            return inOrderTraversal();
+        }
+        // The other traversals depend on the shape of the tree, so the buffer has to be part of it first
+        flush();
+        return tree.traverse(order);
+    }
+
+    private Iterator<T> inOrderTraversal() {
+        List<T> treeList = tree.inOrderList();
+        List<T> bufferList = new ArrayList<T>(buffer);
+
+        return new Iterator<T>() {
+            private int i = 0;
+            private int j = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < treeList.size() || j < bufferList.size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (j == bufferList.size()) {
+                    return treeList.get(i++);
+                }
+                if (i == treeList.size()) {
+                    return bufferList.get(j++);
+                }
+                if (treeList.get(i).compareTo(bufferList.get(j)) < 0) {
+                    return treeList.get(i++);
+                }
+                return bufferList.get(j++);
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package li.jeffrey.binarytrees;
+
+/**
+ * This class represents a closed interval [low, high] of any comparable data type. Intervals are ordered by their low
+ * endpoint first and their high endpoint second.
+ *
+ * @author Jeffrey Li
+ */
+public class Interval<T extends Comparable<T>> implements Comparable<Interval<T>> {
+
+    private final T low;
+    private final T high;
+
+    public Interval(T low, T high) {
+        if (low == null || high == null) {
+            throw new IllegalArgumentException("Interval endpoints must not be null");
+        }
+        if (low.compareTo(high) > 0) {
+            throw new IllegalArgumentException("Interval low endpoint must not exceed high endpoint");
+        }
+        this.low = low;
+        this.high = high;
+    }
+
+    public T getLow() {
+        return low;
+    }
+
+    public T getHigh() {
+        return high;
+    }
+
+    public boolean overlaps(T low, T high) {
+        return this.low.compareTo(high) <= 0 && this.high.compareTo(low) >= 0;
+    }
+
+    public boolean contains(T point) {
+        return overlaps(point, point);
+    }
+
+    @Override
+    public int compareTo(Interval<T> other) {
+        int cmp = low.compareTo(other.low);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return high.compareTo(other.high);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Interval)) {
+            return false;
+        }
+        Interval<?> other = (Interval<?>) o;
+        return low.equals(other.low) && high.equals(other.high);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * low.hashCode() + high.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + low + ", " + high + "]";
+    }
+}
@@ -0,0 +1,400 @@
+package li.jeffrey.binarytrees;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+
+/**
+ * This class implements an Interval Tree of closed intervals over any comparable data type. It is a Red Black Tree
+ * ordered by interval where every node is augmented with the maximum high endpoint in its subtree. It supports
+ * insert(), remove(), contains(), size(), isEmpty(), and height() as well as lazy iterators over all intervals
+ * overlapping a range, overlapping(), and all intervals containing a point, containing(). Both queries skip every
+ * subtree that cannot hold a match, so they run in O(min(n, (k + 1) log n)) for k reported intervals.
+ *
+ * @author Jeffrey Li
+ */
+public class IntervalTree<T extends Comparable<T>> {
+
+    private Node root;
+    private int size;
+    private boolean shorter;
+
+    private enum NodeColor {
+        RED,
+        BLACK
+    }
+
+    private class Node {
+        private Interval<T> interval;
+        private T max;
+        private NodeColor color;
+        private Node left;
+        private Node right;
+
+        private Node(Interval<T> interval) {
+            this.interval = interval;
+            max = interval.getHigh();
+            color = NodeColor.RED;
+            left = null;
+            right = null;
+        }
+    }
+
+    public IntervalTree() {
+        root = null;
+        size = 0;
+    }
+
+    public boolean insert(T low, T high) {
+        return insert(new Interval<T>(low, high));
+    }
+
+    public boolean insert(Interval<T> interval) {
+        if (interval == null) {
+            return false;
+        }
+        if (contains(interval)) {
+            return false;
+        }
+        root = insertHelper(root, interval);
+        root.color = NodeColor.BLACK;
+        size++;
+        return true;
+    }
+
+    private Node insertHelper(Node current, Interval<T> interval) {
+        if (current == null) {
+            return new Node(interval);
+        }
+        // Color swap while traversing through tree
+        // Black Parent with two Red Children -> Red Parent with two Black Children
+        if (isRed(current.left) && isRed(current.right)) {
+            current.color = NodeColor.RED;
+            current.left.color = NodeColor.BLACK;
+            current.right.color = NodeColor.BLACK;
+        }
+        if (interval.compareTo(current.interval) < 0) {
+            current.left = insertHelper(current.left, interval);
+        } else if (interval.compareTo(current.interval) > 0) {
+            current.right = insertHelper(current.right, interval);
+        }
+        updateMax(current);
+
+        /* Restructuring after Insertion, see RedBlackTree */
+
+        // Inner Grandchild needs two rotations, first rotate from inner to outer grandchild
+        if (isRed(current.right) && isRed(current.right.left)) {
+            current.right = rotateRight(current.right);
+        }
+        // Outer Grandchild needs rotation
+        if (isRed(current.right) && isRed(current.right.right)) {
+            current = rotateLeft(current);
+        }
+        // Inner Grandchild needs two rotations, first rotate from inner to outer grandchild
+        if (isRed(current.left) && isRed(current.left.right)) {
+            current.left = rotateLeft(current.left);
+        }
+        // Outer Grandchild needs rotation
+        if (isRed(current.left) && isRed(current.left.left)) {
+            current = rotateRight(current);
+        }
+
+        return current;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node temp = node.right;
+        node.right = temp.left;
+        temp.left = node;
+        temp.color = temp.left.color;
+        temp.left.color = NodeColor.RED;
+        // The old root now sits below its right child, so its subtree shrank while the new root covers it all
+        updateMax(node);
+        updateMax(temp);
+        return temp;
+    }
+
+    private Node rotateRight(Node node) {
+        Node temp = node.left;
+        node.left = temp.right;
+        temp.right = node;
+        temp.color = temp.right.color;
+        temp.right.color = NodeColor.RED;
+        updateMax(node);
+        updateMax(temp);
+        return temp;
+    }
+
+    private boolean isRed(Node node) {
+        return node != null && node.color == NodeColor.RED;
+    }
+
+    private void updateMax(Node node) {
+        node.max = computeMax(node);
+    }
+
+    // Largest high endpoint of the node and the stored maxima of its children
+    private T computeMax(Node node) {
+        T max = node.interval.getHigh();
+        if (node.left != null && node.left.max.compareTo(max) > 0) {
+            max = node.left.max;
+        }
+        if (node.right != null && node.right.max.compareTo(max) > 0) {
+            max = node.right.max;
+        }
+        return max;
+    }
+
+    public boolean remove(T low, T high) {
+        return remove(new Interval<T>(low, high));
+    }
+
+    public boolean remove(Interval<T> interval) {
+        if (interval == null) {
+            return false;
+        }
+        if (!contains(interval)) {
+            return false;
+        }
+        shorter = false;
+        root = removeHelper(root, interval);
+        if (root != null) {
+            root.color = NodeColor.BLACK;
+        }
+        size--;
+        return true;
+    }
+
+    // Removes the interval from the subtree and sets shorter if the black height of the subtree dropped by one
+    private Node removeHelper(Node current, Interval<T> interval) {
+        if (interval.compareTo(current.interval) < 0) {
+            current.left = removeHelper(current.left, interval);
+            if (shorter) {
+                return fixLeft(current);
+            }
+        } else if (interval.compareTo(current.interval) > 0) {
+            current.right = removeHelper(current.right, interval);
+            if (shorter) {
+                return fixRight(current);
+            }
+        } else if (current.left != null && current.right != null) {
+            // Two children: replace with the inorder successor and remove that instead
+            Node successor = current.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            current.interval = successor.interval;
+            current.right = removeHelper(current.right, successor.interval);
+            if (shorter) {
+                return fixRight(current);
+            }
+        } else {
+            Node child = current.left != null ? current.left : current.right;
+            if (current.color == NodeColor.BLACK) {
+                if (isRed(child)) {
+                    child.color = NodeColor.BLACK;
+                } else {
+                    shorter = true;
+                }
+            }
+            return child;
+        }
+        updateMax(current);
+        return current;
+    }
+
+    // Left subtree of current is one black node short
+    private Node fixLeft(Node current) {
+        Node sibling = current.right;
+        if (isRed(sibling)) {
+            // Red Sibling: rotate so that the sibling becomes the parent, then fix the now red old parent
+            Node top = rotateLeft(current);
+            top.left = fixLeft(top.left);
+            shorter = false;
+            updateMax(top);
+            return top;
+        }
+        if (!isRed(sibling.left) && !isRed(sibling.right)) {
+            // Black Sibling with two Black Children: push the missing black up
+            sibling.color = NodeColor.RED;
+            shorter = current.color == NodeColor.BLACK;
+            current.color = NodeColor.BLACK;
+            updateMax(current);
+            return current;
+        }
+        if (!isRed(sibling.right)) {
+            // Inner Red Nephew needs two rotations, first rotate from inner to outer nephew
+            current.right = rotateRight(sibling);
+        }
+        // Outer Red Nephew needs rotation
+        Node top = rotateLeft(current);
+        top.left.color = NodeColor.BLACK;
+        top.right.color = NodeColor.BLACK;
+        shorter = false;
+        return top;
+    }
+
+    // Right subtree of current is one black node short
+    private Node fixRight(Node current) {
+        Node sibling = current.left;
+        if (isRed(sibling)) {
+            Node top = rotateRight(current);
+            top.right = fixRight(top.right);
+            shorter = false;
+            updateMax(top);
+            return top;
+        }
+        if (!isRed(sibling.left) && !isRed(sibling.right)) {
+            sibling.color = NodeColor.RED;
+            shorter = current.color == NodeColor.BLACK;
+            current.color = NodeColor.BLACK;
+            updateMax(current);
+            return current;
+        }
+        if (!isRed(sibling.left)) {
+            current.left = rotateLeft(sibling);
+        }
+        Node top = rotateRight(current);
+        top.left.color = NodeColor.BLACK;
+        top.right.color = NodeColor.BLACK;
+        shorter = false;
+        return top;
+    }
+
+    public boolean contains(T low, T high) {
+        return contains(new Interval<T>(low, high));
+    }
+
+    public boolean contains(Interval<T> interval) {
+        if (interval == null) {
+            return false;
+        }
+        Node node = root;
+        while (node != null) {
+            int cmp = interval.compareTo(node.interval);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Iterator<Interval<T>> overlapping(T low, T high) {
+        if (low == null || high == null) {
+            throw new IllegalArgumentException("Query endpoints must not be null");
+        }
+        return new OverlapIterator(low, high);
+    }
+
+    public Iterator<Interval<T>> containing(T point) {
+        return overlapping(point, point);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int height() {
+        return heightHelper(root);
+    }
+
+    private int heightHelper(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return Math.max(heightHelper(node.left), heightHelper(node.right)) + 1;
+    }
+
+    // Checks ordering, coloring, equal black heights, and max endpoints; used by tests
+    boolean isValid() {
+        return !isRed(root) && validHelper(root, null, null) >= 0;
+    }
+
+    private int validHelper(Node node, Interval<T> lower, Interval<T> upper) {
+        if (node == null) {
+            return 0;
+        }
+        if (lower != null && node.interval.compareTo(lower) <= 0) {
+            return -1;
+        }
+        if (upper != null && node.interval.compareTo(upper) >= 0) {
+            return -1;
+        }
+        if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+            return -1;
+        }
+        if (computeMax(node).compareTo(node.max) != 0) {
+            return -1;
+        }
+        int left = validHelper(node.left, lower, node.interval);
+        int right = validHelper(node.right, node.interval, upper);
+        if (left < 0 || right < 0 || left != right) {
+            return -1;
+        }
+        return left + (isRed(node) ? 0 : 1);
+    }
+
+    /*
+     * Inorder walk that skips every subtree whose max endpoint lies before the query and stops at the first node
+     * whose low endpoint lies after it, since everything later in order starts even later.
+     */
+    private class OverlapIterator implements Iterator<Interval<T>> {
+        private final T low;
+        private final T high;
+        private final Stack<Node> stack;
+        private Interval<T> next;
+
+        private OverlapIterator(T low, T high) {
+            this.low = low;
+            this.high = high;
+            stack = new Stack<Node>();
+            pushLeft(root);
+            next = advance();
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null && node.max.compareTo(low) >= 0) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        private Interval<T> advance() {
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                if (node.interval.getLow().compareTo(high) > 0) {
+                    stack.clear();
+                    return null;
+                }
+                pushLeft(node.right);
+                if (node.interval.getHigh().compareTo(low) >= 0) {
+                    return node.interval;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Interval<T> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Interval<T> result = next;
+            next = advance();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package li.jeffrey.binarytrees;
+
+/**
+ * This interface estimates the number of bytes held by a key stored in a tree, beyond the reference to it in the tree
+ * node. It is used by memoryStats() to account for key payload, since the trees cannot know how their keys are laid out.
+ *
+ * @author Jeffrey Li
+ */
+@FunctionalInterface
+public interface KeySizer<T> {
+
+    long sizeOf(T key);
+}
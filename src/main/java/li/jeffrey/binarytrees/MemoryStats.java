@@ -0,0 +1,98 @@
+package li.jeffrey.binarytrees;
+
+/**
+ * This class is a snapshot of the memory held by a tree and of its shape: node count, estimated bytes per node from the
+ * object layout of the running JVM, estimated key payload, height, average node depth, and for a Red Black Tree the
+ * number of red and black nodes. Depths count the root as 1, like height().
+ *
+ * @author Jeffrey Li
+ */
+public class MemoryStats {
+
+    private final long nodeCount;
+    private final long bytesPerNode;
+    private final long keyBytes;
+    private final int height;
+    private final double averageDepth;
+    private final boolean colored;
+    private final long redCount;
+
+    MemoryStats(long nodeCount, long bytesPerNode, long keyBytes, int height, long depthSum, boolean colored,
+                long redCount) {
+        this.nodeCount = nodeCount;
+        this.bytesPerNode = bytesPerNode;
+        this.keyBytes = keyBytes;
+        this.height = height;
+        this.averageDepth = nodeCount == 0 ? 0 : (double) depthSum / nodeCount;
+        this.colored = colored;
+        this.redCount = redCount;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getBytesPerNode() {
+        return bytesPerNode;
+    }
+
+    public long getNodeBytes() {
+        return nodeCount * bytesPerNode;
+    }
+
+    public long getKeyBytes() {
+        return keyBytes;
+    }
+
+    public long getTotalBytes() {
+        return getNodeBytes() + keyBytes;
+    }
+
+    public boolean isCompressedOops() {
+        return ObjectLayout.COMPRESSED_OOPS;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Height of a perfectly balanced tree with as many nodes, to compare getHeight() against
+    public int getMinimumHeight() {
+        return 64 - Long.numberOfLeadingZeros(nodeCount);
+    }
+
+    public double getAverageDepth() {
+        return averageDepth;
+    }
+
+    public boolean isColored() {
+        return colored;
+    }
+
+    public long getRedCount() {
+        return redCount;
+    }
+
+    public long getBlackCount() {
+        return colored ? nodeCount - redCount : 0;
+    }
+
+    // Red nodes per black node, or NaN for trees without colors
+    public double getRedBlackRatio() {
+        if (!colored || getBlackCount() == 0) {
+            return Double.NaN;
+        }
+        return (double) redCount / getBlackCount();
+    }
+
+    @Override
+    public String toString() {
+        String stats = "nodes=" + nodeCount + ", bytesPerNode=" + bytesPerNode + ", nodeBytes=" + getNodeBytes()
+                + ", keyBytes=" + keyBytes + ", totalBytes=" + getTotalBytes() + ", height=" + height
+                + ", minimumHeight=" + getMinimumHeight() + ", averageDepth=" + String.format("%.2f", averageDepth);
+        if (colored) {
+            stats += ", red=" + redCount + ", black=" + getBlackCount();
+        }
+        return "MemoryStats{" + stats + "}";
+    }
+}
@@ -0,0 +1,51 @@
+package li.jeffrey.binarytrees;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class estimates the size of objects on the running JVM from its object header size, reference size, and object
+ * alignment. The values are read from the HotSpot VM options when available and otherwise assumed from the maximum
+ * heap size, since HotSpot compresses references by default for heaps under 32 GB.
+ *
+ * @author Jeffrey Li
+ */
+final class ObjectLayout {
+
+    static final boolean COMPRESSED_OOPS;
+    static final int REFERENCE_SIZE;
+    static final int HEADER_SIZE;
+    static final int ALIGNMENT;
+
+    static {
+        boolean compressedOops = Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+        boolean compressedClassPointers = compressedOops;
+        int alignment = 8;
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            compressedOops = Boolean.parseBoolean(bean.getVMOption("UseCompressedOops").getValue());
+            compressedClassPointers = Boolean.parseBoolean(bean.getVMOption("UseCompressedClassPointers").getValue());
+            alignment = Integer.parseInt(bean.getVMOption("ObjectAlignmentInBytes").getValue());
+        } catch (RuntimeException | LinkageError e) {
+            // Not a HotSpot JVM, keep the defaults
+        }
+        COMPRESSED_OOPS = compressedOops;
+        REFERENCE_SIZE = compressedOops ? 4 : 8;
+        HEADER_SIZE = compressedClassPointers ? 12 : 16;
+        ALIGNMENT = alignment;
+    }
+
+    private ObjectLayout() {
+    }
+
+    // Size of an instance holding only references; they are laid out after the header at reference alignment
+    static long instanceSize(int references) {
+        long fieldsStart = align(HEADER_SIZE, REFERENCE_SIZE);
+        return align(fieldsStart + (long) references * REFERENCE_SIZE, ALIGNMENT);
+    }
+
+    private static long align(long size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+}
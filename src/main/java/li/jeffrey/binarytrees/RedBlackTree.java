@@ -1,13 +1,18 @@
 package li.jeffrey.binarytrees;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 
 /**
  * This class implements a Red Black Tree (RBT) of any comparable data type. It supports add(), contains(),
  * size(), isEmpty(), and height() as well as iterators for each of the following traversals: Inorder traversal,
- * Preorder traversal, Postorder traversal, and Levelorder traversal.
+ * Preorder traversal, Postorder traversal, and Levelorder traversal. Batches of sorted keys can be looked up in a
+ * single pass over the tree with containsAll() and inserted with insertAll(). Its memory
+ * footprint and shape, including its red to black ratio, can be estimated with memoryStats().
  *
  * @author Jeffrey Li
  */
@@ -15,6 +20,12 @@ public class RedBlackTree<T extends Comparable<T>> {
 
     private Node root;
     private int size;
+    // Results of split() and join() besides the returned tree, see union()
+    private Node splitRight;
+    private int splitLeftHeight;
+    private int splitRightHeight;
+    private int joinedHeight;
+    private int duplicates;
 
     private enum NodeColor {
         RED,
@@ -47,16 +58,17 @@ public class RedBlackTree<T extends Comparable<T>> {
         if (contains(data)) {
             return false;
         }
-        root = insertHelper(root, data);
+        root = insertHelper(root, new Node(data));
         root.color = NodeColor.BLACK;
         size++;
         return true;
     }
 
-    private Node insertHelper(Node current, T data) {
+    private Node insertHelper(Node current, Node node) {
         if (current == null) {
-            return new Node(data);
+            return node;
         }
+        T data = node.data;
         // Color swap while traversing through tree
         // Black Parent with two Red Children -> Red Parent with two Black Children
         if (current.left != null && current.right != null) {
@@ -67,9 +79,11 @@ public class RedBlackTree<T extends Comparable<T>> {
             }
         }
         if (data.compareTo(current.data) < 0) {
-            current.left = insertHelper(current.left, data);
+            current.left = insertHelper(current.left, node);
         } else if (data.compareTo(current.data) > 0) {
-            current.right = insertHelper(current.right, data);
+            current.right = insertHelper(current.right, node);
+        } else {
+            duplicates++;
         }
 
         /* Restructuring after Insertion */
@@ -140,6 +154,192 @@ public class RedBlackTree<T extends Comparable<T>> {
         return temp;
     }
 
+    /*
+     * Bulk insertion by join (Blelloch, Ferizovic, and Sun, "Just Join for Parallel Ordered Sets"). The batch is built
+     * into a balanced tree, and the union splits the tree around the batch root, unions each side with the matching
+     * half of the batch, and joins the two results back under the batch root. A batch of k keys costs
+     * O(k log(n / k + 1)), so a few keys cost about as much as single inserts and a large batch about as much as a
+     * linear merge, without ever descending once per key. Every call below passes and sets black heights, so no
+     * spine is walked more than once.
+     */
+    private Node union(Node node, int height, Node batch, int batchHeight) {
+        if (batch == null) {
+            joinedHeight = height;
+            return node;
+        }
+        if (node == null) {
+            joinedHeight = batchHeight;
+            return batch;
+        }
+        if (batch.left == null && batch.right == null) {
+            // A single key is cheaper to link in with one descent than to split around
+            batch.color = NodeColor.RED;
+            node = insertHelper(node, batch);
+            joinedHeight = height;
+            if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+                node.color = NodeColor.BLACK;
+                joinedHeight++;
+            }
+            return node;
+        }
+        int childHeight = batchHeight - (isRed(batch) ? 0 : 1);
+        Node batchLeft = batch.left;
+        Node batchRight = batch.right;
+        Node left = split(node, height, batch.data);
+        Node right = splitRight;
+        int rightHeight = splitRightHeight;
+        left = union(left, splitLeftHeight, batchLeft, childHeight);
+        int leftHeight = joinedHeight;
+        right = union(right, rightHeight, batchRight, childHeight);
+        return join(left, leftHeight, batch, right, joinedHeight);
+    }
+
+    // Returns the part of the tree less than data and leaves the part greater than data in splitRight; a node equal
+    // to data is dropped and counted as a duplicate
+    private Node split(Node node, int height, T data) {
+        if (node == null) {
+            splitRight = null;
+            splitLeftHeight = 0;
+            splitRightHeight = 0;
+            return null;
+        }
+        int childHeight = height - (isRed(node) ? 0 : 1);
+        int cmp = data.compareTo(node.data);
+        if (cmp < 0) {
+            Node right = node.right;
+            Node left = split(node.left, childHeight, data);
+            splitRight = join(splitRight, splitRightHeight, node, right, childHeight);
+            splitRightHeight = joinedHeight;
+            return left;
+        } else if (cmp > 0) {
+            Node left = node.left;
+            Node lower = split(node.right, childHeight, data);
+            left = join(left, childHeight, node, lower, splitLeftHeight);
+            splitLeftHeight = joinedHeight;
+            return left;
+        }
+        duplicates++;
+        splitRight = node.right;
+        splitLeftHeight = childHeight;
+        splitRightHeight = childHeight;
+        return node.left;
+    }
+
+    // Joins two trees with every element of left less than mid and every element of right greater than mid
+    private Node join(Node left, int leftHeight, Node mid, Node right, int rightHeight) {
+        if (leftHeight > rightHeight) {
+            Node top = joinRight(left, leftHeight, mid, right, rightHeight);
+            joinedHeight = leftHeight;
+            if (isRed(top) && isRed(top.right)) {
+                top.color = NodeColor.BLACK;
+                joinedHeight++;
+            }
+            return top;
+        }
+        if (rightHeight > leftHeight) {
+            Node top = joinLeft(left, leftHeight, mid, right, rightHeight);
+            joinedHeight = rightHeight;
+            if (isRed(top) && isRed(top.left)) {
+                top.color = NodeColor.BLACK;
+                joinedHeight++;
+            }
+            return top;
+        }
+        mid.left = left;
+        mid.right = right;
+        joinedHeight = leftHeight;
+        if (isRed(left) || isRed(right)) {
+            mid.color = NodeColor.BLACK;
+            joinedHeight++;
+        } else {
+            mid.color = NodeColor.RED;
+        }
+        return mid;
+    }
+
+    // Walks down the right spine of the taller left tree to the first black node as high as right and hangs both
+    // under a red mid, then repairs a double red on the way back up with one rotation
+    private Node joinRight(Node left, int leftHeight, Node mid, Node right, int rightHeight) {
+        if (!isRed(left) && leftHeight == rightHeight) {
+            mid.left = left;
+            mid.right = right;
+            mid.color = NodeColor.RED;
+            return mid;
+        }
+        left.right = joinRight(left.right, leftHeight - (isRed(left) ? 0 : 1), mid, right, rightHeight);
+        if (!isRed(left) && isRed(left.right) && isRed(left.right.right)) {
+            left.right.right.color = NodeColor.BLACK;
+            Node top = rotateLeft(left);
+            top.color = NodeColor.RED;
+            top.left.color = NodeColor.BLACK;
+            return top;
+        }
+        return left;
+    }
+
+    private Node joinLeft(Node left, int leftHeight, Node mid, Node right, int rightHeight) {
+        if (!isRed(right) && rightHeight == leftHeight) {
+            mid.left = left;
+            mid.right = right;
+            mid.color = NodeColor.RED;
+            return mid;
+        }
+        right.left = joinLeft(left, leftHeight, mid, right.left, rightHeight - (isRed(right) ? 0 : 1));
+        if (!isRed(right) && isRed(right.left) && isRed(right.left.left)) {
+            right.left.left.color = NodeColor.BLACK;
+            Node top = rotateRight(right);
+            top.color = NodeColor.RED;
+            top.right.color = NodeColor.BLACK;
+            return top;
+        }
+        return right;
+    }
+
+    private boolean isRed(Node node) {
+        return node != null && node.color == NodeColor.RED;
+    }
+
+    // Number of black nodes on every path from node down to a null link
+    private int blackHeight(Node node) {
+        int height = 0;
+        for (; node != null; node = node.left) {
+            if (node.color == NodeColor.BLACK) {
+                height++;
+            }
+        }
+        return height;
+    }
+
+    // Splitting on the middle element leaves every null link on the last two levels, so coloring the
+    // deepest level red and everything else black gives equal black heights on every path
+    private Node buildHelper(List<T> elements, int low, int high, int depth, int levels) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        Node node = new Node(elements.get(mid));
+        node.color = depth == levels ? NodeColor.RED : NodeColor.BLACK;
+        node.left = buildHelper(elements, low, mid - 1, depth + 1, levels);
+        node.right = buildHelper(elements, mid + 1, high, depth + 1, levels);
+        return node;
+    }
+
+    List<T> inOrderList() {
+        List<T> list = new ArrayList<T>(size);
+        Stack<Node> stack = new Stack<Node>();
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            list.add(node.data);
+            node = node.right;
+        }
+        return list;
+    }
+
     public boolean remove(T data) {
         throw new UnsupportedOperationException();
     }
@@ -164,6 +364,86 @@ public class RedBlackTree<T extends Comparable<T>> {
         }
     }
 
+    public BitSet containsAll(List<T> sortedBatch) {
+        BitSet result = new BitSet(sortedBatch.size());
+        requireSorted(sortedBatch);
+        containsAllHelper(root, sortedBatch, 0, sortedBatch.size(), result);
+        return result;
+    }
+
+    // Walks the tree and the batch together: each node splits the batch into the keys that belong to its left and
+    // right subtrees, so a subtree is entered at most once per batch instead of once per key
+    private void containsAllHelper(Node node, List<T> batch, int from, int to, BitSet result) {
+        if (node == null || from >= to) {
+            return;
+        }
+        int split = lowerBound(batch, from, to, node.data);
+        containsAllHelper(node.left, batch, from, split, result);
+        while (split < to && batch.get(split).compareTo(node.data) == 0) {
+            result.set(split);
+            split++;
+        }
+        containsAllHelper(node.right, batch, split, to, result);
+    }
+
+    // Index of the first key in batch[from, to) not less than data, galloping from the front so that keys close to
+    // the previous position are found in O(log distance)
+    private int lowerBound(List<T> batch, int from, int to, T data) {
+        int bound = 1;
+        while (from + bound - 1 < to && batch.get(from + bound - 1).compareTo(data) < 0) {
+            bound <<= 1;
+        }
+        int low = from + (bound >> 1);
+        int high = Math.min(from + bound - 1, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (batch.get(mid).compareTo(data) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void requireSorted(List<T> batch) {
+        T previous = null;
+        for (T data : batch) {
+            if (data == null) {
+                throw new IllegalArgumentException("Batch must not contain null");
+            }
+            if (previous != null && previous.compareTo(data) > 0) {
+                throw new IllegalArgumentException("Batch must be sorted in ascending order");
+            }
+            previous = data;
+        }
+    }
+
+    private List<T> distinct(List<T> sortedBatch) {
+        List<T> result = new ArrayList<T>(sortedBatch.size());
+        for (T data : sortedBatch) {
+            if (result.isEmpty() || result.get(result.size() - 1).compareTo(data) != 0) {
+                result.add(data);
+            }
+        }
+        return result;
+    }
+
+    public int insertAll(List<T> sortedBatch) {
+        requireSorted(sortedBatch);
+        List<T> batch = distinct(sortedBatch);
+        int levels = 32 - Integer.numberOfLeadingZeros(batch.size());
+        Node batchRoot = buildHelper(batch, 0, batch.size() - 1, 1, levels);
+        duplicates = 0;
+        root = union(root, blackHeight(root), batchRoot, blackHeight(batchRoot));
+        if (root != null) {
+            root.color = NodeColor.BLACK;
+        }
+        int added = batch.size() - duplicates;
+        size += added;
+        return added;
+    }
+
     public int size() {
         return size;
     }
@@ -183,6 +463,76 @@ public class RedBlackTree<T extends Comparable<T>> {
         return Math.max(heightHelper(node.left), heightHelper(node.right)) + 1;
     }
 
+    public MemoryStats memoryStats() {
+        return memoryStats(key -> 0);
+    }
+
+    // Walks the nodes once with an explicit stack, so a degenerate tree cannot overflow the call stack
+    public MemoryStats memoryStats(KeySizer<? super T> sizer) {
+        long keyBytes = 0;
+        long depthSum = 0;
+        int height = 0;
+        long redCount = 0;
+        Stack<Node> nodes = new Stack<Node>();
+        Stack<Integer> depths = new Stack<Integer>();
+        if (root != null) {
+            nodes.push(root);
+            depths.push(1);
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int depth = depths.pop();
+            keyBytes += sizer.sizeOf(node.data);
+            depthSum += depth;
+            height = Math.max(height, depth);
+            if (node.color == NodeColor.RED) {
+                redCount++;
+            }
+            if (node.left != null) {
+                nodes.push(node.left);
+                depths.push(depth + 1);
+            }
+            if (node.right != null) {
+                nodes.push(node.right);
+                depths.push(depth + 1);
+            }
+        }
+        // Node holds references to data, color, left, right, and the enclosing tree
+        return new MemoryStats(size, ObjectLayout.instanceSize(5), keyBytes, height, depthSum, true, redCount);
+    }
+
+    // Checks ordering, coloring, and equal black heights; used by tests
+    boolean isValid() {
+        if (root != null && root.color == NodeColor.RED) {
+            return false;
+        }
+        return validHelper(root, null, null) >= 0;
+    }
+
+    private int validHelper(Node node, T lower, T upper) {
+        if (node == null) {
+            return 0;
+        }
+        if (lower != null && node.data.compareTo(lower) <= 0) {
+            return -1;
+        }
+        if (upper != null && node.data.compareTo(upper) >= 0) {
+            return -1;
+        }
+        if (node.color == NodeColor.RED) {
+            if ((node.left != null && node.left.color == NodeColor.RED)
+                    || (node.right != null && node.right.color == NodeColor.RED)) {
+                return -1;
+            }
+        }
+        int left = validHelper(node.left, lower, node.data);
+        int right = validHelper(node.right, node.data, upper);
+        if (left < 0 || right < 0 || left != right) {
+            return -1;
+        }
+        return left + (node.color == NodeColor.BLACK ? 1 : 0);
+    }
+
     /* Print function from GeeksForGeeks */
     int COUNT = 10;
 
@@ -234,21 +584,17 @@ public class RedBlackTree<T extends Comparable<T>> {
     private Iterator<T> inOrderTraversal() {
         Stack<Node> stack = new Stack<Node>();
         LinkedList<Node> queue = new LinkedList<Node>();
-        if (root != null) {
-            stack.push(root);
-        }
-        while (!stack.isEmpty()) {
-            Node node = stack.pop();
-            if (node.left != null && !queue.contains(node.left)) {
+        // Push the left spine, then visit each node before walking into its right subtree, so that no node has to be
+        // looked up in the queue to know whether it was visited
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
                 stack.push(node);
-                stack.push(node.left);
-                continue;
-            }
-            if (node.right != null && !queue.contains(node.right)) {
-                stack.push(node.right);
+                node = node.left;
             }
-
+            node = stack.pop();
             queue.add(node);
+            node = node.right;
         }
 
         return new Iterator<T>() {
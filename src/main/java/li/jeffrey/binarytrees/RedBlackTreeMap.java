@@ -0,0 +1,482 @@
+package li.jeffrey.binarytrees;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This class implements a map backed by a Red Black Tree (RBT) whose nodes hold a key and a value. Keys are ordered by
+ * the Comparator given at construction, or by their natural ordering if none is given. It supports get(), put(),
+ * remove(), containsKey(), computeIfAbsent(), merge(), size(), isEmpty(), and height() as well as an inorder iterator
+ * over the entries.
+ *
+ * @author Jeffrey Li
+ */
+public class RedBlackTreeMap<K, V> {
+
+    private final Comparator<? super K> comparator;
+    private Node root;
+    private int size;
+    private boolean shorter;
+    private boolean found;
+    private V oldValue;
+    private Node target;
+    // Counts insertions and removals, so that a node held across a user function is only written if none happened
+    private int modCount;
+
+    private enum NodeColor {
+        RED,
+        BLACK
+    }
+
+    private class Node implements Map.Entry<K, V> {
+        private K key;
+        private V value;
+        private NodeColor color;
+        private Node left;
+        private Node right;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+            color = NodeColor.RED;
+            left = null;
+            right = null;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    public RedBlackTreeMap() {
+        this(null);
+    }
+
+    public RedBlackTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        root = null;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(K a, K b) {
+        if (comparator != null) {
+            return comparator.compare(a, b);
+        }
+        return ((Comparable<? super K>) a).compareTo(b);
+    }
+
+    // Separate loops for the two orderings so each call site only ever sees one kind of compare
+    @SuppressWarnings("unchecked")
+    private Node getNode(K key) {
+        if (key == null) {
+            return null;
+        }
+        Node node = root;
+        if (comparator != null) {
+            while (node != null) {
+                int cmp = comparator.compare(key, node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else {
+                    return node;
+                }
+            }
+        } else {
+            Comparable<? super K> k = (Comparable<? super K>) key;
+            while (node != null) {
+                int cmp = k.compareTo(node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    public V get(K key) {
+        Node node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    public boolean containsKey(K key) {
+        return getNode(key) != null;
+    }
+
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+        found = false;
+        oldValue = null;
+        root = putHelper(root, key, value);
+        root.color = NodeColor.BLACK;
+        if (!found) {
+            size++;
+            modCount++;
+        }
+        V result = oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    // Single descent: either replaces the value of an existing key or links in a new node
+    private Node putHelper(Node current, K key, V value) {
+        if (current == null) {
+            return new Node(key, value);
+        }
+        // Color swap while traversing through tree
+        // Black Parent with two Red Children -> Red Parent with two Black Children
+        if (isRed(current.left) && isRed(current.right)) {
+            current.color = NodeColor.RED;
+            current.left.color = NodeColor.BLACK;
+            current.right.color = NodeColor.BLACK;
+        }
+        int cmp = compare(key, current.key);
+        if (cmp < 0) {
+            current.left = putHelper(current.left, key, value);
+        } else if (cmp > 0) {
+            current.right = putHelper(current.right, key, value);
+        } else {
+            oldValue = current.value;
+            current.value = value;
+            found = true;
+        }
+
+        /* Restructuring after Insertion, see RedBlackTree */
+
+        // Inner Grandchild needs two rotations, first rotate from inner to outer grandchild
+        if (isRed(current.right) && isRed(current.right.left)) {
+            current.right = rotateRight(current.right);
+        }
+        // Outer Grandchild needs rotation
+        if (isRed(current.right) && isRed(current.right.right)) {
+            current = rotateLeft(current);
+        }
+        // Inner Grandchild needs two rotations, first rotate from inner to outer grandchild
+        if (isRed(current.left) && isRed(current.left.right)) {
+            current.left = rotateLeft(current.left);
+        }
+        // Outer Grandchild needs rotation
+        if (isRed(current.left) && isRed(current.left.left)) {
+            current = rotateRight(current);
+        }
+
+        return current;
+    }
+
+    // The key is only linked in once its value is known, so the mapping function never sees it half inserted
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Node node = getNode(key);
+        if (node != null && node.value != null) {
+            return node.value;
+        }
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        if (value == null) {
+            return null;
+        }
+        if (node != null && modCount == expectedModCount) {
+            node.value = value;
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null");
+        }
+        Node node = getOrCreateNode(key);
+        if (node.value == null) {
+            node.value = value;
+            return value;
+        }
+        int expectedModCount = modCount;
+        V newValue = remappingFunction.apply(node.value, value);
+        if (newValue == null) {
+            remove(key);
+        } else if (modCount == expectedModCount) {
+            node.value = newValue;
+        } else {
+            // A removal inside the function may have moved the key into another node
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    // Returns the node for key with a single descent, linking in a new node with a null value if there is none;
+    // found tells the two apart
+    private Node getOrCreateNode(K key) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+        found = false;
+        root = putIfAbsentHelper(root, key);
+        root.color = NodeColor.BLACK;
+        if (!found) {
+            size++;
+            modCount++;
+        }
+        Node node = target;
+        target = null;
+        return node;
+    }
+
+    // Same descent and restructuring as putHelper, but an existing node is left untouched
+    private Node putIfAbsentHelper(Node current, K key) {
+        if (current == null) {
+            target = new Node(key, null);
+            return target;
+        }
+        if (isRed(current.left) && isRed(current.right)) {
+            current.color = NodeColor.RED;
+            current.left.color = NodeColor.BLACK;
+            current.right.color = NodeColor.BLACK;
+        }
+        int cmp = compare(key, current.key);
+        if (cmp < 0) {
+            current.left = putIfAbsentHelper(current.left, key);
+        } else if (cmp > 0) {
+            current.right = putIfAbsentHelper(current.right, key);
+        } else {
+            target = current;
+            found = true;
+        }
+
+        if (isRed(current.right) && isRed(current.right.left)) {
+            current.right = rotateRight(current.right);
+        }
+        if (isRed(current.right) && isRed(current.right.right)) {
+            current = rotateLeft(current);
+        }
+        if (isRed(current.left) && isRed(current.left.right)) {
+            current.left = rotateLeft(current.left);
+        }
+        if (isRed(current.left) && isRed(current.left.left)) {
+            current = rotateRight(current);
+        }
+
+        return current;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node temp = node.right;
+        node.right = temp.left;
+        temp.left = node;
+        temp.color = temp.left.color;
+        temp.left.color = NodeColor.RED;
+        return temp;
+    }
+
+    private Node rotateRight(Node node) {
+        Node temp = node.left;
+        node.left = temp.right;
+        temp.right = node;
+        temp.color = temp.right.color;
+        temp.right.color = NodeColor.RED;
+        return temp;
+    }
+
+    private boolean isRed(Node node) {
+        return node != null && node.color == NodeColor.RED;
+    }
+
+    public V remove(K key) {
+        Node node = getNode(key);
+        if (node == null) {
+            return null;
+        }
+        V value = node.value;
+        shorter = false;
+        root = removeHelper(root, key);
+        if (root != null) {
+            root.color = NodeColor.BLACK;
+        }
+        size--;
+        modCount++;
+        return value;
+    }
+
+    // Removes the key from the subtree and sets shorter if the black height of the subtree dropped by one
+    private Node removeHelper(Node current, K key) {
+        int cmp = compare(key, current.key);
+        if (cmp < 0) {
+            current.left = removeHelper(current.left, key);
+            return shorter ? fixLeft(current) : current;
+        } else if (cmp > 0) {
+            current.right = removeHelper(current.right, key);
+            return shorter ? fixRight(current) : current;
+        } else if (current.left != null && current.right != null) {
+            // Two children: replace with the inorder successor and remove that instead
+            Node successor = current.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            current.key = successor.key;
+            current.value = successor.value;
+            current.right = removeHelper(current.right, successor.key);
+            return shorter ? fixRight(current) : current;
+        }
+        Node child = current.left != null ? current.left : current.right;
+        if (current.color == NodeColor.BLACK) {
+            if (isRed(child)) {
+                child.color = NodeColor.BLACK;
+            } else {
+                shorter = true;
+            }
+        }
+        return child;
+    }
+
+    // Left subtree of current is one black node short, see IntervalTree
+    private Node fixLeft(Node current) {
+        Node sibling = current.right;
+        if (isRed(sibling)) {
+            Node top = rotateLeft(current);
+            top.left = fixLeft(top.left);
+            shorter = false;
+            return top;
+        }
+        if (!isRed(sibling.left) && !isRed(sibling.right)) {
+            sibling.color = NodeColor.RED;
+            shorter = current.color == NodeColor.BLACK;
+            current.color = NodeColor.BLACK;
+            return current;
+        }
+        if (!isRed(sibling.right)) {
+            current.right = rotateRight(sibling);
+        }
+        Node top = rotateLeft(current);
+        top.left.color = NodeColor.BLACK;
+        top.right.color = NodeColor.BLACK;
+        shorter = false;
+        return top;
+    }
+
+    // Right subtree of current is one black node short
+    private Node fixRight(Node current) {
+        Node sibling = current.left;
+        if (isRed(sibling)) {
+            Node top = rotateRight(current);
+            top.right = fixRight(top.right);
+            shorter = false;
+            return top;
+        }
+        if (!isRed(sibling.left) && !isRed(sibling.right)) {
+            sibling.color = NodeColor.RED;
+            shorter = current.color == NodeColor.BLACK;
+            current.color = NodeColor.BLACK;
+            return current;
+        }
+        if (!isRed(sibling.left)) {
+            current.left = rotateLeft(sibling);
+        }
+        Node top = rotateRight(current);
+        top.left.color = NodeColor.BLACK;
+        top.right.color = NodeColor.BLACK;
+        shorter = false;
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int height() {
+        return heightHelper(root);
+    }
+
+    private int heightHelper(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return Math.max(heightHelper(node.left), heightHelper(node.right)) + 1;
+    }
+
+    // Checks ordering, coloring, and equal black heights; used by tests
+    boolean isValid() {
+        return !isRed(root) && validHelper(root, null, null) >= 0;
+    }
+
+    private int validHelper(Node node, Node lower, Node upper) {
+        if (node == null) {
+            return 0;
+        }
+        if (lower != null && compare(node.key, lower.key) <= 0) {
+            return -1;
+        }
+        if (upper != null && compare(node.key, upper.key) >= 0) {
+            return -1;
+        }
+        if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+            return -1;
+        }
+        int left = validHelper(node.left, lower, node);
+        int right = validHelper(node.right, node, upper);
+        if (left < 0 || right < 0 || left != right) {
+            return -1;
+        }
+        return left + (isRed(node) ? 0 : 1);
+    }
+
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        Stack<Node> stack = new Stack<Node>();
+        for (Node node = root; node != null; node = node.left) {
+            stack.push(node);
+        }
+
+        return new Iterator<Map.Entry<K, V>>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.pop();
+                for (Node child = node.right; child != null; child = child.left) {
+                    stack.push(child);
+                }
+                return node;
+            }
+        };
+    }
+}
@@ -0,0 +1,330 @@
+package li.jeffrey.caches;
+
+import li.jeffrey.lists.LinkedList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * This class implements a bounded in-memory cache with either Least Recently Used (LRU) or Least Frequently Used (LFU)
+ * eviction and an optional time to live. Every entry is found through a hash index and kept in doubly linked lists
+ * ordered by recency, frequency, and expiry, so get(), put(), remove(), and eviction all run in O(1). The cache is
+ * split into independently locked stripes chosen by key hash; the stripes split the capacity as evenly as possible.
+ * It supports get(), put(), remove(), size(), and clear() as well as hit, miss, and eviction counts.
+ *
+ * @author Jeffrey Li
+ */
+public class Cache<K, V> {
+
+    public enum EvictionPolicy {
+        LRU,
+        LFU
+    }
+
+    private final List<Segment> segments;
+    private final int segmentShift;
+    private final EvictionPolicy policy;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+
+    // An entry is its own node in the recency list of its stripe, or of its frequency bucket under LFU
+    private class Entry extends LinkedList.Node<Entry> {
+        private final K key;
+        private V value;
+        private long expiresAt;
+        private long frequency;
+        private LinkedList.Node<Bucket> bucketNode;
+        private LinkedList.Node<Entry> expiryNode;
+
+        private Entry(K key, V value) {
+            super(null);
+            setData(this);
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // All entries used the same number of times under LFU, least recently used last
+    private class Bucket {
+        private final long frequency;
+        private final LinkedList<Entry> entries;
+
+        private Bucket(long frequency) {
+            this.frequency = frequency;
+            entries = new LinkedList<Entry>();
+        }
+    }
+
+    private class Segment {
+        private final int capacity;
+        private final HashMap<K, Entry> index;
+        private final LinkedList<Entry> recency;
+        private final LinkedList<Bucket> buckets;
+        // With a single time to live, write order is also deadline order
+        private final LinkedList<Entry> expiry;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            index = new HashMap<K, Entry>();
+            recency = new LinkedList<Entry>();
+            buckets = new LinkedList<Bucket>();
+            expiry = new LinkedList<Entry>();
+        }
+
+        private synchronized V get(K key) {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (timeToLiveNanos > 0 && isExpired(entry, clock.getAsLong())) {
+                unlink(entry);
+                misses++;
+                return null;
+            }
+            touch(entry);
+            hits++;
+            return entry.value;
+        }
+
+        private synchronized V put(K key, V value) {
+            long now = timeToLiveNanos > 0 ? clock.getAsLong() : 0;
+            expire(now);
+            Entry entry = index.get(key);
+            if (entry != null) {
+                V old = entry.value;
+                entry.value = value;
+                refreshExpiry(entry, now);
+                touch(entry);
+                return old;
+            }
+            if (index.size() >= capacity) {
+                evict();
+            }
+            entry = new Entry(key, value);
+            index.put(key, entry);
+            if (policy == EvictionPolicy.LRU) {
+                recency.linkFirst(entry);
+            } else {
+                entry.frequency = 1;
+                LinkedList.Node<Bucket> first = buckets.first();
+                if (first == null || first.getData().frequency != 1) {
+                    first = buckets.addFirst(new Bucket(1));
+                }
+                entry.bucketNode = first;
+                first.getData().entries.linkFirst(entry);
+            }
+            refreshExpiry(entry, now);
+            return null;
+        }
+
+        private synchronized V remove(K key) {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            unlink(entry);
+            return timeToLiveNanos > 0 && isExpired(entry, clock.getAsLong()) ? null : entry.value;
+        }
+
+        private synchronized int size() {
+            if (timeToLiveNanos > 0) {
+                expire(clock.getAsLong());
+            }
+            return index.size();
+        }
+
+        private synchronized void clear() {
+            index.clear();
+            recency.clear();
+            buckets.clear();
+            expiry.clear();
+        }
+
+        private void touch(Entry entry) {
+            if (policy == EvictionPolicy.LRU) {
+                recency.moveToFront(entry);
+                return;
+            }
+            // Move the entry into the bucket for its next frequency, creating that bucket right after the current one
+            LinkedList.Node<Bucket> current = entry.bucketNode;
+            LinkedList.Node<Bucket> next = current.getNext();
+            entry.frequency++;
+            if (next == null || next.getData().frequency != entry.frequency) {
+                next = buckets.addAfter(current, new Bucket(entry.frequency));
+            }
+            current.getData().entries.remove(entry);
+            if (current.getData().entries.isEmpty()) {
+                buckets.remove(current);
+            }
+            entry.bucketNode = next;
+            next.getData().entries.linkFirst(entry);
+        }
+
+        private void evict() {
+            Entry victim;
+            if (policy == EvictionPolicy.LRU) {
+                victim = recency.last().getData();
+            } else {
+                victim = buckets.first().getData().entries.last().getData();
+            }
+            unlink(victim);
+            evictions++;
+        }
+
+        private void expire(long now) {
+            LinkedList.Node<Entry> oldest = expiry.first();
+            while (oldest != null && isExpired(oldest.getData(), now)) {
+                unlink(oldest.getData());
+                oldest = expiry.first();
+            }
+        }
+
+        private void refreshExpiry(Entry entry, long now) {
+            if (timeToLiveNanos <= 0) {
+                return;
+            }
+            entry.expiresAt = now + timeToLiveNanos;
+            if (entry.expiryNode == null) {
+                entry.expiryNode = expiry.addLast(entry);
+            } else {
+                expiry.moveToBack(entry.expiryNode);
+            }
+        }
+
+        private void unlink(Entry entry) {
+            index.remove(entry.key);
+            if (policy == EvictionPolicy.LRU) {
+                recency.remove(entry);
+            } else {
+                LinkedList<Entry> entries = entry.bucketNode.getData().entries;
+                entries.remove(entry);
+                if (entries.isEmpty()) {
+                    buckets.remove(entry.bucketNode);
+                }
+            }
+            if (entry.expiryNode != null) {
+                expiry.remove(entry.expiryNode);
+            }
+        }
+    }
+
+    public Cache(int capacity) {
+        this(capacity, EvictionPolicy.LRU);
+    }
+
+    public Cache(int capacity, EvictionPolicy policy) {
+        this(capacity, policy, 0, 1);
+    }
+
+    public Cache(int capacity, EvictionPolicy policy, long timeToLiveMillis, int concurrencyLevel) {
+        this(capacity, policy, timeToLiveMillis * 1_000_000L, concurrencyLevel, System::nanoTime);
+    }
+
+    Cache(int capacity, EvictionPolicy policy, long timeToLiveNanos, int concurrencyLevel, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Eviction policy must not be null");
+        }
+        this.policy = policy;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.clock = clock;
+        int stripes = Integer.highestOneBit(Math.min(concurrencyLevel, capacity));
+        segmentShift = 32 - Integer.numberOfTrailingZeros(stripes);
+        segments = new ArrayList<Segment>(stripes);
+        // The first capacity % stripes stripes take one extra entry so that the shares add up to exactly capacity
+        for (int i = 0; i < stripes; i++) {
+            segments.add(new Segment(capacity / stripes + (i < capacity % stripes ? 1 : 0)));
+        }
+    }
+
+    // Picks the stripe from the high bits of a multiplicative hash, leaving the low bits that HashMap indexes by
+    // varied within every stripe
+    private Segment segmentFor(Object key) {
+        long hash = (key.hashCode() * 0x9E3779B9L) & 0xFFFFFFFFL;
+        return segments.get((int) (hash >>> segmentShift));
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.expiresAt >= 0;
+    }
+
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        return segmentFor(key).get(key);
+    }
+
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Key and value must not be null");
+        }
+        return segmentFor(key).put(key, value);
+    }
+
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        return segmentFor(key).remove(key);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long hitCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.hits;
+            }
+        }
+        return count;
+    }
+
+    public long missCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.misses;
+            }
+        }
+        return count;
+    }
+
+    public long evictionCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.evictions;
+            }
+        }
+        return count;
+    }
+}
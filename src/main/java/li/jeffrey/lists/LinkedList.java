@@ -1,4 +1,210 @@
 package li.jeffrey.lists;
 
-public class LinkedList {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a Doubly Linked List of any data type. Every insertion returns the Node holding the element,
+ * and that Node can later be removed or moved to either end of the list in O(1) without searching for it. Nodes can
+ * also be created by the caller, or subclassed so that elements carry their own links, and linked in with linkFirst(),
+ * linkLast(), and linkAfter() without any allocation by the list. It supports addFirst(), addLast(), addAfter(),
+ * remove(), moveToFront(), moveToBack(), removeFirst(), removeLast(), first(), last(), contains(), size(), and
+ * isEmpty() as well as an iterator from front to back.
+ *
+ * @author Jeffrey Li
+ */
+public class LinkedList<T> implements Iterable<T> {
+
+    private final Node<T> head;
+    private int size;
+
+    public static class Node<T> {
+        private T data;
+        private Node<T> previous;
+        private Node<T> next;
+        private LinkedList<T> list;
+
+        public Node(T data) {
+            this.data = data;
+            previous = null;
+            next = null;
+            list = null;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public void setData(T data) {
+            this.data = data;
+        }
+
+        public Node<T> getNext() {
+            return list == null || next == list.head ? null : next;
+        }
+
+        public Node<T> getPrevious() {
+            return list == null || previous == list.head ? null : previous;
+        }
+    }
+
+    public LinkedList() {
+        // The head is a sentinel linking to itself, so no insertion or removal has to special case the ends
+        head = new Node<T>(null);
+        head.previous = head;
+        head.next = head;
+        head.list = this;
+        size = 0;
+    }
+
+    public Node<T> addFirst(T data) {
+        return link(head, new Node<T>(data));
+    }
+
+    public Node<T> linkFirst(Node<T> node) {
+        checkDetached(node);
+        return link(head, node);
+    }
+
+    public Node<T> addLast(T data) {
+        return link(head.previous, new Node<T>(data));
+    }
+
+    public Node<T> linkLast(Node<T> node) {
+        checkDetached(node);
+        return link(head.previous, node);
+    }
+
+    public Node<T> addAfter(Node<T> node, T data) {
+        checkOwner(node);
+        return link(node, new Node<T>(data));
+    }
+
+    public Node<T> linkAfter(Node<T> node, Node<T> newNode) {
+        checkOwner(node);
+        checkDetached(newNode);
+        return link(node, newNode);
+    }
+
+    public T remove(Node<T> node) {
+        checkOwner(node);
+        unlink(node);
+        node.list = null;
+        size--;
+        return node.data;
+    }
+
+    public void moveToFront(Node<T> node) {
+        checkOwner(node);
+        if (head.next != node) {
+            unlink(node);
+            relink(head, node);
+        }
+    }
+
+    public void moveToBack(Node<T> node) {
+        checkOwner(node);
+        if (head.previous != node) {
+            unlink(node);
+            relink(head.previous, node);
+        }
+    }
+
+    public T removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return remove(head.next);
+    }
+
+    public T removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return remove(head.previous);
+    }
+
+    public Node<T> first() {
+        return size == 0 ? null : head.next;
+    }
+
+    public Node<T> last() {
+        return size == 0 ? null : head.previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(Node<T> node) {
+        return node != null && node.list == this && node != head;
+    }
+
+    public void clear() {
+        for (Node<T> node = head.next; node != head; node = node.next) {
+            node.list = null;
+        }
+        head.next = head;
+        head.previous = head;
+        size = 0;
+    }
+
+    private Node<T> link(Node<T> previous, Node<T> node) {
+        relink(previous, node);
+        node.list = this;
+        size++;
+        return node;
+    }
+
+    private void relink(Node<T> previous, Node<T> node) {
+        node.previous = previous;
+        node.next = previous.next;
+        previous.next.previous = node;
+        previous.next = node;
+    }
+
+    private void unlink(Node<T> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = null;
+        node.next = null;
+    }
+
+    private void checkOwner(Node<T> node) {
+        if (node == null || node.list != this || node == head) {
+            throw new IllegalArgumentException("Node does not belong to this list");
+        }
+    }
+
+    private void checkDetached(Node<T> node) {
+        if (node == null || node.list != null) {
+            throw new IllegalArgumentException("Node already belongs to a list");
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node<T> current = head.next;
+
+            @Override
+            public boolean hasNext() {
+                return current != head;
+            }
+
+            @Override
+            public T next() {
+                if (current == head) {
+                    throw new NoSuchElementException();
+                }
+                T data = current.data;
+                current = current.next;
+                return data;
+            }
+        };
+    }
 }
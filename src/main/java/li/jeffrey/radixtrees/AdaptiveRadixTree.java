@@ -0,0 +1,640 @@
+package li.jeffrey.radixtrees;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+
+/**
+ * This class implements an Adaptive Radix Tree (ART) of String or byte[] keys. Keys are compared byte by byte as
+ * unsigned values, Strings by their UTF-16 code units two bytes each, high byte first, so a lookup costs O(key length)
+ * no matter how many keys are stored. Both kinds of key share one key space, so a byte[] key holding exactly that
+ * encoding is the same key as the String. traverse() yields Strings and is meant for trees of String keys; keys()
+ * yields every key as bytes. Inner nodes grow and shrink between 4, 16, 48, and 256 children to fit how many they
+ * actually have, chains of single children are compressed into a stored prefix, and a key that is unique below some
+ * depth is kept as a single leaf. It supports add(), remove(), contains(), size(), isEmpty(), and height() as well as
+ * an inorder iterator. The encoding keeps every String distinct, unpaired surrogates included, and orders them exactly
+ * as String.compareTo().
+ *
+ * @author Jeffrey Li
+ */
+public class AdaptiveRadixTree {
+
+    // Shared by every node without a prefix so that checking one does not touch a separate array per node
+    private static final byte[] NO_PREFIX = new byte[0];
+
+    private Node root;
+    private int size;
+    private boolean changed;
+
+    private abstract static class Node {
+    }
+
+    private static class Leaf extends Node {
+        private final byte[] key;
+
+        private Leaf(byte[] key) {
+            this.key = key;
+        }
+    }
+
+    private abstract static class InnerNode extends Node {
+        // Bytes shared by every key below this node, skipped over instead of stored as single child nodes
+        byte[] prefix;
+        // The key that ends exactly at this node, if any
+        Leaf terminal;
+        int count;
+
+        private InnerNode(byte[] prefix) {
+            this.prefix = prefix;
+        }
+
+        abstract Node find(int key);
+
+        // Adds or replaces the child for key; the node must not be full when adding
+        abstract void put(int key, Node child);
+
+        abstract void delete(int key);
+
+        abstract boolean isFull();
+
+        abstract InnerNode grow();
+
+        abstract InnerNode shrink();
+
+        // Smallest key at least from that has a child, or -1 if there is none
+        abstract int nextKey(int from);
+
+        // Copies the prefix, terminal, and children of this node into a node of a different size
+        InnerNode copyInto(InnerNode node) {
+            node.terminal = terminal;
+            for (int key = nextKey(0); key >= 0; key = nextKey(key + 1)) {
+                node.put(key, find(key));
+            }
+            return node;
+        }
+    }
+
+    // Node4 and Node16 keep their keys sorted in parallel arrays
+    private abstract static class SortedNode extends InnerNode {
+        private final byte[] keys;
+        private final Node[] children;
+
+        private SortedNode(byte[] prefix, int capacity) {
+            super(prefix);
+            keys = new byte[capacity];
+            children = new Node[capacity];
+        }
+
+        private int indexOf(int key) {
+            for (int i = 0; i < count; i++) {
+                if ((keys[i] & 0xFF) == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Node find(int key) {
+            int index = indexOf(key);
+            return index < 0 ? null : children[index];
+        }
+
+        @Override
+        void put(int key, Node child) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            int position = 0;
+            while (position < count && (keys[position] & 0xFF) < key) {
+                position++;
+            }
+            System.arraycopy(keys, position, keys, position + 1, count - position);
+            System.arraycopy(children, position, children, position + 1, count - position);
+            keys[position] = (byte) key;
+            children[position] = child;
+            count++;
+        }
+
+        @Override
+        void delete(int key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+            System.arraycopy(children, index + 1, children, index, count - index - 1);
+            count--;
+            children[count] = null;
+        }
+
+        @Override
+        boolean isFull() {
+            return count == keys.length;
+        }
+
+        @Override
+        int nextKey(int from) {
+            for (int i = 0; i < count; i++) {
+                if ((keys[i] & 0xFF) >= from) {
+                    return keys[i] & 0xFF;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class Node4 extends SortedNode {
+        private Node4(byte[] prefix) {
+            super(prefix, 4);
+        }
+
+        @Override
+        InnerNode grow() {
+            return copyInto(new Node16(prefix));
+        }
+
+        @Override
+        InnerNode shrink() {
+            return this;
+        }
+    }
+
+    private static class Node16 extends SortedNode {
+        private Node16(byte[] prefix) {
+            super(prefix, 16);
+        }
+
+        @Override
+        InnerNode grow() {
+            return copyInto(new Node48(prefix));
+        }
+
+        @Override
+        InnerNode shrink() {
+            return count <= 3 ? copyInto(new Node4(prefix)) : this;
+        }
+    }
+
+    // Node48 maps every byte to a slot in a child array of 48 through a 256 entry index
+    private static class Node48 extends InnerNode {
+        private final byte[] index;
+        private final Node[] children;
+
+        private Node48(byte[] prefix) {
+            super(prefix);
+            // Slots are stored plus one so that 0 means no child
+            index = new byte[256];
+            children = new Node[48];
+        }
+
+        @Override
+        Node find(int key) {
+            int slot = index[key];
+            return slot == 0 ? null : children[slot - 1];
+        }
+
+        @Override
+        void put(int key, Node child) {
+            int slot = index[key];
+            if (slot != 0) {
+                children[slot - 1] = child;
+                return;
+            }
+            int free = 0;
+            while (children[free] != null) {
+                free++;
+            }
+            children[free] = child;
+            index[key] = (byte) (free + 1);
+            count++;
+        }
+
+        @Override
+        void delete(int key) {
+            int slot = index[key];
+            if (slot == 0) {
+                return;
+            }
+            children[slot - 1] = null;
+            index[key] = 0;
+            count--;
+        }
+
+        @Override
+        boolean isFull() {
+            return count == children.length;
+        }
+
+        @Override
+        InnerNode grow() {
+            return copyInto(new Node256(prefix));
+        }
+
+        @Override
+        InnerNode shrink() {
+            return count <= 12 ? copyInto(new Node16(prefix)) : this;
+        }
+
+        @Override
+        int nextKey(int from) {
+            for (int key = from; key < 256; key++) {
+                if (index[key] != 0) {
+                    return key;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class Node256 extends InnerNode {
+        private final Node[] children;
+
+        private Node256(byte[] prefix) {
+            super(prefix);
+            children = new Node[256];
+        }
+
+        @Override
+        Node find(int key) {
+            return children[key];
+        }
+
+        @Override
+        void put(int key, Node child) {
+            if (children[key] == null) {
+                count++;
+            }
+            children[key] = child;
+        }
+
+        @Override
+        void delete(int key) {
+            if (children[key] != null) {
+                children[key] = null;
+                count--;
+            }
+        }
+
+        @Override
+        boolean isFull() {
+            return false;
+        }
+
+        @Override
+        InnerNode grow() {
+            return this;
+        }
+
+        @Override
+        InnerNode shrink() {
+            return count <= 37 ? copyInto(new Node48(prefix)) : this;
+        }
+
+        @Override
+        int nextKey(int from) {
+            for (int key = from; key < 256; key++) {
+                if (children[key] != null) {
+                    return key;
+                }
+            }
+            return -1;
+        }
+    }
+
+    public AdaptiveRadixTree() {
+        root = null;
+        size = 0;
+    }
+
+    // Encoded by hand, since every Charset replaces unpaired surrogates and would map distinct keys to the same bytes
+    private static byte[] encode(String key) {
+        byte[] bytes = new byte[key.length() * 2];
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            bytes[2 * i] = (byte) (c >>> 8);
+            bytes[2 * i + 1] = (byte) c;
+        }
+        return bytes;
+    }
+
+    private static String decode(byte[] bytes) {
+        if (bytes.length % 2 != 0) {
+            throw new IllegalStateException("Key of odd length " + bytes.length + " was not added as a String");
+        }
+        char[] chars = new char[bytes.length / 2];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ((bytes[2 * i] & 0xFF) << 8 | (bytes[2 * i + 1] & 0xFF));
+        }
+        return new String(chars);
+    }
+
+    public boolean add(String key) {
+        return key != null && addKey(encode(key));
+    }
+
+    public boolean add(byte[] key) {
+        return key != null && addKey(key.clone());
+    }
+
+    private boolean addKey(byte[] key) {
+        changed = false;
+        root = addHelper(root, key, 0);
+        if (changed) {
+            size++;
+        }
+        return changed;
+    }
+
+    private Node addHelper(Node node, byte[] key, int depth) {
+        if (node == null) {
+            changed = true;
+            return new Leaf(key);
+        }
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            if (Arrays.equals(leaf.key, key)) {
+                return leaf;
+            }
+            // Two keys now share this spot, so split at the first byte where they differ
+            int common = depth;
+            while (common < leaf.key.length && common < key.length && leaf.key[common] == key[common]) {
+                common++;
+            }
+            InnerNode split = new Node4(slice(key, depth, common));
+            attach(split, leaf, common);
+            attach(split, new Leaf(key), common);
+            changed = true;
+            return split;
+        }
+
+        InnerNode inner = (InnerNode) node;
+        int matched = matchPrefix(inner, key, depth);
+        if (matched < inner.prefix.length) {
+            // The key leaves the compressed path partway, so the path is cut in two around a new Node4
+            InnerNode split = new Node4(slice(inner.prefix, 0, matched));
+            int branch = inner.prefix[matched] & 0xFF;
+            inner.prefix = slice(inner.prefix, matched + 1, inner.prefix.length);
+            split.put(branch, inner);
+            attach(split, new Leaf(key), depth + matched);
+            changed = true;
+            return split;
+        }
+        depth += inner.prefix.length;
+        if (depth == key.length) {
+            if (inner.terminal == null) {
+                inner.terminal = new Leaf(key);
+                changed = true;
+            }
+            return inner;
+        }
+        int branch = key[depth] & 0xFF;
+        Node child = inner.find(branch);
+        if (child != null) {
+            Node replacement = addHelper(child, key, depth + 1);
+            if (replacement != child) {
+                inner.put(branch, replacement);
+            }
+            return inner;
+        }
+        if (inner.isFull()) {
+            inner = inner.grow();
+        }
+        inner.put(branch, new Leaf(key));
+        changed = true;
+        return inner;
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        return from == to ? NO_PREFIX : Arrays.copyOfRange(bytes, from, to);
+    }
+
+    // Hangs a leaf below a node whose path ends at depth
+    private void attach(InnerNode node, Leaf leaf, int depth) {
+        if (leaf.key.length == depth) {
+            node.terminal = leaf;
+        } else {
+            node.put(leaf.key[depth] & 0xFF, leaf);
+        }
+    }
+
+    private int matchPrefix(InnerNode node, byte[] key, int depth) {
+        int limit = Math.min(node.prefix.length, key.length - depth);
+        int matched = 0;
+        while (matched < limit && node.prefix[matched] == key[depth + matched]) {
+            matched++;
+        }
+        return matched;
+    }
+
+    public boolean remove(String key) {
+        return key != null && remove(encode(key));
+    }
+
+    public boolean remove(byte[] key) {
+        if (key == null) {
+            return false;
+        }
+        changed = false;
+        root = removeHelper(root, key, 0);
+        if (changed) {
+            size--;
+        }
+        return changed;
+    }
+
+    private Node removeHelper(Node node, byte[] key, int depth) {
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof Leaf) {
+            if (Arrays.equals(((Leaf) node).key, key)) {
+                changed = true;
+                return null;
+            }
+            return node;
+        }
+
+        InnerNode inner = (InnerNode) node;
+        if (matchPrefix(inner, key, depth) < inner.prefix.length) {
+            return inner;
+        }
+        depth += inner.prefix.length;
+        if (depth == key.length) {
+            if (inner.terminal == null) {
+                return inner;
+            }
+            inner.terminal = null;
+            changed = true;
+            return compact(inner);
+        }
+        int branch = key[depth] & 0xFF;
+        Node child = inner.find(branch);
+        if (child == null) {
+            return inner;
+        }
+        Node replacement = removeHelper(child, key, depth + 1);
+        if (replacement == child) {
+            return inner;
+        }
+        if (replacement == null) {
+            inner.delete(branch);
+        } else {
+            inner.put(branch, replacement);
+        }
+        return compact(inner);
+    }
+
+    // Undoes splits and growth once a node has lost enough of its keys
+    private Node compact(InnerNode inner) {
+        if (inner.count == 0) {
+            return inner.terminal;
+        }
+        if (inner.count == 1 && inner.terminal == null) {
+            // A node with a single child is only a step on a path, so fold it into that child
+            int branch = inner.nextKey(0);
+            Node child = inner.find(branch);
+            if (child instanceof InnerNode) {
+                InnerNode next = (InnerNode) child;
+                byte[] prefix = new byte[inner.prefix.length + 1 + next.prefix.length];
+                System.arraycopy(inner.prefix, 0, prefix, 0, inner.prefix.length);
+                prefix[inner.prefix.length] = (byte) branch;
+                System.arraycopy(next.prefix, 0, prefix, inner.prefix.length + 1, next.prefix.length);
+                next.prefix = prefix;
+            }
+            return child;
+        }
+        return inner.shrink();
+    }
+
+    public boolean contains(String key) {
+        return key != null && contains(encode(key));
+    }
+
+    public boolean contains(byte[] key) {
+        if (key == null) {
+            return false;
+        }
+        Node node = root;
+        int depth = 0;
+        while (node != null) {
+            if (node instanceof Leaf) {
+                return Arrays.equals(((Leaf) node).key, key);
+            }
+            InnerNode inner = (InnerNode) node;
+            if (matchPrefix(inner, key, depth) < inner.prefix.length) {
+                return false;
+            }
+            depth += inner.prefix.length;
+            if (depth == key.length) {
+                return inner.terminal != null;
+            }
+            node = inner.find(key[depth] & 0xFF);
+            depth++;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int height() {
+        return heightHelper(root);
+    }
+
+    private int heightHelper(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node instanceof Leaf) {
+            return 1;
+        }
+        InnerNode inner = (InnerNode) node;
+        int height = inner.terminal != null ? 1 : 0;
+        for (int key = inner.nextKey(0); key >= 0; key = inner.nextKey(key + 1)) {
+            height = Math.max(height, heightHelper(inner.find(key)));
+        }
+        return height + 1;
+    }
+
+    public Iterator<String> traverse(String order) {
+        switch (order) {
+            case "INORDER":
+                Iterator<byte[]> keys = keys();
+                return new Iterator<String>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return decode(keys.next());
+                    }
+                };
+            default:
+                return null;
+        }
+    }
+
+    // Inorder: the key ending at a node comes before every key below it, then the children in byte order
+    public Iterator<byte[]> keys() {
+        return new Iterator<byte[]>() {
+            private final Stack<InnerNode> nodes = new Stack<InnerNode>();
+            private final Stack<Integer> positions = new Stack<Integer>();
+            private Leaf next = descend(root);
+
+            private Leaf descend(Node node) {
+                if (node == null || node instanceof Leaf) {
+                    return (Leaf) node;
+                }
+                InnerNode inner = (InnerNode) node;
+                nodes.push(inner);
+                positions.push(0);
+                return inner.terminal != null ? inner.terminal : advance();
+            }
+
+            private Leaf advance() {
+                while (!nodes.isEmpty()) {
+                    InnerNode inner = nodes.peek();
+                    int key = inner.nextKey(positions.peek());
+                    if (key < 0) {
+                        nodes.pop();
+                        positions.pop();
+                        continue;
+                    }
+                    positions.pop();
+                    positions.push(key + 1);
+                    Leaf leaf = descend(inner.find(key));
+                    if (leaf != null) {
+                        return leaf;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public byte[] next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                byte[] key = next.key.clone();
+                next = advance();
+                return key;
+            }
+        };
+    }
+}
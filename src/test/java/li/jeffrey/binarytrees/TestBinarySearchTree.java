@@ -3,6 +3,10 @@ package li.jeffrey.binarytrees;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestBinarySearchTree {
@@ -87,4 +91,54 @@ public class TestBinarySearchTree {
         assertEquals(test.height(), 4);
     }
 
+    @Test
+    public void testContainsAll() {
+        test.add(0);
+        test.add(5);
+        test.add(10);
+        test.add(15);
+        BitSet result = test.containsAll(Arrays.asList(-5, 0, 0, 7, 10, 20));
+        assertEquals(result.cardinality(), 3);
+        assertTrue(result.get(1));
+        assertTrue(result.get(2));
+        assertTrue(result.get(4));
+        assertTrue(test.containsAll(Arrays.asList()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> test.containsAll(Arrays.asList(5, 0)));
+    }
+
+    @Test
+    public void testAddAll() {
+        test.add(10);
+        test.add(20);
+        assertEquals(test.addAll(Arrays.asList(0, 5, 5, 10, 15, 25, 30, 35)), 6);
+        assertEquals(test.size(), 8);
+        assertEquals(test.height(), 4);
+        Iterator<Integer> iterator = test.traverse("INORDER");
+        for (int expected : new int[]{0, 5, 10, 15, 20, 25, 30, 35}) {
+            assertEquals(iterator.next(), expected);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testMemoryStats() {
+        MemoryStats empty = test.memoryStats();
+        assertEquals(empty.getNodeCount(), 0);
+        assertEquals(empty.getTotalBytes(), 0);
+        assertTrue(Double.isNaN(empty.getRedBlackRatio()));
+        for (int i = 0; i < 100; i++) {
+            test.add(i);
+        }
+        MemoryStats stats = test.memoryStats(key -> 16);
+        assertEquals(stats.getNodeCount(), 100);
+        assertEquals(stats.getHeight(), 100);
+        assertEquals(stats.getMinimumHeight(), 7);
+        assertEquals(stats.getAverageDepth(), 50.5);
+        assertEquals(stats.getKeyBytes(), 1600);
+        assertEquals(stats.getBytesPerNode() % 8, 0);
+        assertEquals(stats.getBytesPerNode(), stats.isCompressedOops() ? 32 : 48);
+        assertEquals(stats.getTotalBytes(), 100 * stats.getBytesPerNode() + 1600);
+        assertFalse(stats.isColored());
+    }
+
 }
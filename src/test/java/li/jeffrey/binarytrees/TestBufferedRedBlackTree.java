@@ -0,0 +1,94 @@
+package li.jeffrey.binarytrees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBufferedRedBlackTree {
+
+    BufferedRedBlackTree<Integer> test;
+
+    @BeforeEach
+    public void setup() {
+        test = new BufferedRedBlackTree<Integer>(4);
+    }
+
+    @Test
+    public void testInsert() {
+        assertTrue(test.insert(0));
+        assertTrue(test.insert(5));
+        assertTrue(test.insert(-1));
+        assertFalse(test.insert(0));
+        assertEquals(test.bufferedCount(), 3);
+        assertTrue(test.insert(7));
+        assertEquals(test.bufferedCount(), 0);
+        assertFalse(test.insert(5));
+        assertEquals(test.size(), 4);
+    }
+
+    @Test
+    public void testContains() {
+        test.insert(0);
+        test.insert(5);
+        assertTrue(test.contains(5));
+        test.insert(10);
+        test.insert(15);
+        test.insert(20);
+        assertTrue(test.contains(5));
+        assertTrue(test.contains(20));
+        assertFalse(test.contains(3));
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(test.size(), 0);
+        for (int i = 0; i < 10; i++) {
+            test.insert(i);
+            test.insert(i / 2);
+        }
+        assertEquals(test.size(), 10);
+        assertFalse(test.isEmpty());
+        // Reading the size must not flush
+        assertEquals(test.bufferedCount(), 2);
+        assertEquals(test.getFlushCount(), 2);
+    }
+
+    @Test
+    public void testFlushMetrics() {
+        assertEquals(test.getFlushCount(), 0);
+        for (int i = 0; i < 8; i++) {
+            test.insert(i);
+        }
+        assertEquals(test.getFlushCount(), 2);
+        assertTrue(test.getTotalFlushNanos() >= test.getLastFlushNanos());
+        test.flush();
+        assertEquals(test.getFlushCount(), 2);
+        test.insert(100);
+        test.flush();
+        assertEquals(test.getFlushCount(), 3);
+        assertEquals(test.bufferedCount(), 0);
+    }
+
+    @Test
+    public void testInOrderTraversal() {
+        Random random = new Random(27);
+        TreeSet<Integer> reference = new TreeSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(2000);
+            assertEquals(reference.add(value), test.insert(value));
+        }
+        assertTrue(test.bufferedCount() > 0);
+        Iterator<Integer> iterator = test.traverse("INORDER");
+        for (Integer value : reference) {
+            assertEquals(value, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(test.size(), reference.size());
+    }
+
+}
@@ -0,0 +1,122 @@
+package li.jeffrey.binarytrees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIntervalTree {
+
+    IntervalTree<Integer> test;
+
+    @BeforeEach
+    public void setup() {
+        test = new IntervalTree<Integer>();
+    }
+
+    private List<Interval<Integer>> collect(Iterator<Interval<Integer>> iterator) {
+        List<Interval<Integer>> list = new ArrayList<Interval<Integer>>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    @Test
+    public void testInsert() {
+        assertTrue(test.insert(0, 5));
+        assertTrue(test.insert(0, 3));
+        assertTrue(test.insert(-1, 10));
+        assertFalse(test.insert(0, 5));
+        assertEquals(test.size(), 3);
+        assertThrows(IllegalArgumentException.class, () -> test.insert(5, 0));
+    }
+
+    @Test
+    public void testRemove() {
+        test.insert(0, 5);
+        test.insert(2, 4);
+        test.insert(-1, 1);
+        assertTrue(test.remove(0, 5));
+        assertFalse(test.remove(0, 5));
+        assertFalse(test.contains(0, 5));
+        assertTrue(test.remove(-1, 1));
+        assertTrue(test.remove(2, 4));
+        assertTrue(test.isEmpty());
+    }
+
+    @Test
+    public void testOverlapping() {
+        test.insert(0, 3);
+        test.insert(5, 8);
+        test.insert(6, 10);
+        test.insert(8, 9);
+        test.insert(15, 23);
+        test.insert(16, 21);
+        test.insert(17, 19);
+        test.insert(19, 20);
+        test.insert(25, 30);
+        test.insert(26, 26);
+
+        List<Interval<Integer>> result = collect(test.overlapping(9, 16));
+        assertEquals(result.size(), 4);
+        assertEquals(result.get(0), new Interval<Integer>(6, 10));
+        assertEquals(result.get(1), new Interval<Integer>(8, 9));
+        assertEquals(result.get(2), new Interval<Integer>(15, 23));
+        assertEquals(result.get(3), new Interval<Integer>(16, 21));
+        assertTrue(collect(test.overlapping(11, 14)).isEmpty());
+        assertTrue(collect(test.overlapping(31, 40)).isEmpty());
+    }
+
+    @Test
+    public void testContaining() {
+        test.insert(0, 3);
+        test.insert(2, 7);
+        test.insert(3, 3);
+        test.insert(4, 9);
+        List<Interval<Integer>> result = collect(test.containing(3));
+        assertEquals(result.size(), 3);
+        assertEquals(result.get(0), new Interval<Integer>(0, 3));
+        assertEquals(result.get(1), new Interval<Integer>(2, 7));
+        assertEquals(result.get(2), new Interval<Integer>(3, 3));
+        assertTrue(collect(test.containing(10)).isEmpty());
+    }
+
+    @Test
+    public void testRandomAgainstScan() {
+        Random random = new Random(26);
+        List<Interval<Integer>> reference = new ArrayList<Interval<Integer>>();
+        for (int i = 0; i < 2000; i++) {
+            int low = random.nextInt(1000);
+            Interval<Integer> interval = new Interval<Integer>(low, low + random.nextInt(50));
+            if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+                Interval<Integer> victim = reference.remove(random.nextInt(reference.size()));
+                assertTrue(test.remove(victim));
+            } else if (!reference.contains(interval)) {
+                reference.add(interval);
+                assertTrue(test.insert(interval));
+            }
+            assertTrue(test.isValid());
+        }
+        assertEquals(test.size(), reference.size());
+
+        for (int i = 0; i < 200; i++) {
+            int low = random.nextInt(1000);
+            int high = low + random.nextInt(30);
+            List<Interval<Integer>> expected = new ArrayList<Interval<Integer>>();
+            for (Interval<Integer> interval : reference) {
+                if (interval.overlaps(low, high)) {
+                    expected.add(interval);
+                }
+            }
+            expected.sort(null);
+            assertEquals(expected, collect(test.overlapping(low, high)));
+        }
+    }
+
+}
@@ -0,0 +1,352 @@
+package li.jeffrey.binarytrees;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same seeded random mix of inserts, removes, lookups, sorted batches, and inorder traversals against
+ * BinarySearchTree, RedBlackTree, and java.util.TreeSet, checking every result against a TreeSet model and the tree
+ * invariants after every phase, then prints ops/sec per structure. RedBlackTree cannot remove, so it skips removes and
+ * is refilled from empty once it holds half the key range; a second TreeSet runs the same remove-free mix so that
+ * its throughput has something to compare against. The key range grows with the run time so that longer soaks reach
+ * larger trees. By default it runs for a second; a long soak can be started with:
+ * mvn test -Dtest=TestRandomizedSoak -Dsoak.seconds=3600 [-Dsoak.seed=...] [-Dsoak.keyRange=...]
+ */
+public class TestRandomizedSoak {
+
+    private static final long SEED = Long.getLong("soak.seed", 32L);
+    private static final long SECONDS = Long.getLong("soak.seconds", 1L);
+    private static final int KEY_RANGE = Integer.getInteger("soak.keyRange", (int) Math.min(65536 * SECONDS, 1 << 21));
+    private static final int PHASE_LENGTH = 4096;
+    private static final int BATCH_LENGTH = 64;
+
+    private static final int INSERT = 0;
+    private static final int REMOVE = 1;
+    private static final int CONTAINS = 2;
+    private static final int CONTAINS_BATCH = 3;
+    private static final int INSERT_BATCH = 4;
+    private static final int TRAVERSE = 5;
+    private static final String[] NAMES = {"insert", "remove", "contains", "containsAll", "insertAll", "traverse"};
+
+    private interface Subject {
+        String name();
+
+        boolean supportsRemove();
+
+        void reset();
+
+        boolean insert(Integer key);
+
+        boolean remove(Integer key);
+
+        boolean contains(Integer key);
+
+        BitSet containsAll(List<Integer> batch);
+
+        int insertAll(List<Integer> batch);
+
+        Iterator<Integer> inOrder();
+
+        int size();
+
+        boolean isValid();
+    }
+
+    private static class BinarySearchTreeSubject implements Subject {
+        private BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+
+        public String name() {
+            return "BinarySearchTree";
+        }
+
+        public boolean supportsRemove() {
+            return true;
+        }
+
+        public void reset() {
+            tree = new BinarySearchTree<Integer>();
+        }
+
+        public boolean insert(Integer key) {
+            return tree.add(key);
+        }
+
+        public boolean remove(Integer key) {
+            return tree.remove(key);
+        }
+
+        public boolean contains(Integer key) {
+            return tree.contains(key);
+        }
+
+        public BitSet containsAll(List<Integer> batch) {
+            return tree.containsAll(batch);
+        }
+
+        public int insertAll(List<Integer> batch) {
+            return tree.addAll(batch);
+        }
+
+        public Iterator<Integer> inOrder() {
+            return tree.traverse("INORDER");
+        }
+
+        public int size() {
+            return tree.size();
+        }
+
+        public boolean isValid() {
+            return tree.isValid();
+        }
+    }
+
+    private static class RedBlackTreeSubject implements Subject {
+        private RedBlackTree<Integer> tree = new RedBlackTree<Integer>();
+
+        public String name() {
+            return "RedBlackTree";
+        }
+
+        // RedBlackTree.remove() is unsupported, so the tree is refilled from empty whenever it saturates
+        public boolean supportsRemove() {
+            return false;
+        }
+
+        public void reset() {
+            tree = new RedBlackTree<Integer>();
+        }
+
+        public boolean insert(Integer key) {
+            return tree.insert(key);
+        }
+
+        public boolean remove(Integer key) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean contains(Integer key) {
+            return tree.contains(key);
+        }
+
+        public BitSet containsAll(List<Integer> batch) {
+            return tree.containsAll(batch);
+        }
+
+        public int insertAll(List<Integer> batch) {
+            return tree.insertAll(batch);
+        }
+
+        public Iterator<Integer> inOrder() {
+            return tree.traverse("INORDER");
+        }
+
+        public int size() {
+            return tree.size();
+        }
+
+        public boolean isValid() {
+            return tree.isValid();
+        }
+    }
+
+    private static class TreeSetSubject implements Subject {
+        private final boolean supportsRemove;
+        private TreeSet<Integer> set = new TreeSet<Integer>();
+
+        // As a model, a TreeSet has to skip the same operations as the structure it checks
+        private TreeSetSubject(boolean supportsRemove) {
+            this.supportsRemove = supportsRemove;
+        }
+
+        public String name() {
+            return supportsRemove ? "java.util.TreeSet" : "java.util.TreeSet (no removes)";
+        }
+
+        public boolean supportsRemove() {
+            return supportsRemove;
+        }
+
+        public void reset() {
+            set = new TreeSet<Integer>();
+        }
+
+        public boolean insert(Integer key) {
+            return set.add(key);
+        }
+
+        public boolean remove(Integer key) {
+            return set.remove(key);
+        }
+
+        public boolean contains(Integer key) {
+            return set.contains(key);
+        }
+
+        public BitSet containsAll(List<Integer> batch) {
+            BitSet result = new BitSet(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (set.contains(batch.get(i))) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        public int insertAll(List<Integer> batch) {
+            int before = set.size();
+            set.addAll(batch);
+            return set.size() - before;
+        }
+
+        public Iterator<Integer> inOrder() {
+            return set.iterator();
+        }
+
+        public int size() {
+            return set.size();
+        }
+
+        public boolean isValid() {
+            return true;
+        }
+    }
+
+    // One phase of the workload, generated once and replayed on every structure
+    private static class Phase {
+        private final int[] kinds = new int[PHASE_LENGTH];
+        private final Integer[] keys = new Integer[PHASE_LENGTH];
+        private final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+
+        private Phase(Random random) {
+            for (int i = 0; i < PHASE_LENGTH; i++) {
+                int roll = random.nextInt(1000);
+                if (roll < 400) {
+                    kinds[i] = INSERT;
+                } else if (roll < 650) {
+                    kinds[i] = REMOVE;
+                } else if (roll < 990) {
+                    kinds[i] = CONTAINS;
+                } else if (roll < 995) {
+                    kinds[i] = CONTAINS_BATCH;
+                } else if (roll < 999) {
+                    kinds[i] = INSERT_BATCH;
+                } else {
+                    kinds[i] = TRAVERSE;
+                }
+                keys[i] = random.nextInt(KEY_RANGE);
+                List<Integer> batch = new ArrayList<Integer>();
+                if (kinds[i] == CONTAINS_BATCH || kinds[i] == INSERT_BATCH) {
+                    int key = random.nextInt(KEY_RANGE);
+                    for (int j = 0; j < BATCH_LENGTH; j++) {
+                        batch.add(key);
+                        key += random.nextInt(4);
+                    }
+                }
+                batches.add(batch);
+            }
+        }
+    }
+
+    // Applies the phase and returns one result per operation; skipped operations stay 0
+    private static long[] apply(Subject subject, Phase phase) {
+        long[] results = new long[PHASE_LENGTH];
+        for (int i = 0; i < PHASE_LENGTH; i++) {
+            Integer key = phase.keys[i];
+            switch (phase.kinds[i]) {
+                case INSERT:
+                    results[i] = subject.insert(key) ? 1 : 2;
+                    break;
+                case REMOVE:
+                    if (subject.supportsRemove()) {
+                        results[i] = subject.remove(key) ? 1 : 2;
+                    }
+                    break;
+                case CONTAINS:
+                    results[i] = subject.contains(key) ? 1 : 2;
+                    break;
+                case CONTAINS_BATCH:
+                    results[i] = subject.containsAll(phase.batches.get(i)).hashCode();
+                    break;
+                case INSERT_BATCH:
+                    results[i] = subject.insertAll(phase.batches.get(i));
+                    break;
+                default:
+                    long checksum = 1;
+                    for (Iterator<Integer> iterator = subject.inOrder(); iterator.hasNext(); ) {
+                        checksum = checksum * 31 + iterator.next();
+                    }
+                    results[i] = checksum;
+            }
+        }
+        return results;
+    }
+
+    private static int countOperations(Subject subject, Phase phase) {
+        int count = 0;
+        for (int kind : phase.kinds) {
+            if (kind != REMOVE || subject.supportsRemove()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testRandomizedSoak() {
+        Subject[] subjects = {new BinarySearchTreeSubject(), new TreeSetSubject(true), new RedBlackTreeSubject(),
+                new TreeSetSubject(false)};
+        TreeSetSubject[] models = new TreeSetSubject[subjects.length];
+        long[] operations = new long[subjects.length];
+        long[] nanos = new long[subjects.length];
+        int[] peaks = new int[subjects.length];
+        for (int s = 0; s < subjects.length; s++) {
+            models[s] = new TreeSetSubject(subjects[s].supportsRemove());
+        }
+
+        Random random = new Random(SEED);
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        int phases = 0;
+        do {
+            Phase phase = new Phase(random);
+            for (int s = 0; s < subjects.length; s++) {
+                Subject subject = subjects[s];
+                if (!subject.supportsRemove() && subject.size() > KEY_RANGE / 2) {
+                    subject.reset();
+                    models[s].reset();
+                }
+                long start = System.nanoTime();
+                long[] actual = apply(subject, phase);
+                nanos[s] += System.nanoTime() - start;
+                operations[s] += countOperations(subject, phase);
+
+                long[] expected = apply(models[s], phase);
+                for (int i = 0; i < PHASE_LENGTH; i++) {
+                    if (expected[i] != actual[i]) {
+                        fail(subject.name() + " diverged from TreeSet with seed " + SEED + " in phase " + phases
+                                + " at operation " + i + ": " + NAMES[phase.kinds[i]] + "(" + phase.keys[i] + ")");
+                    }
+                }
+                assertEquals(models[s].size(), subject.size(), subject.name() + " size, seed " + SEED);
+                peaks[s] = Math.max(peaks[s], subject.size());
+                assertTrue(subject.isValid(), subject.name() + " invariants, seed " + SEED + ", phase " + phases);
+            }
+            phases++;
+        } while (System.nanoTime() < deadline);
+
+        System.out.printf("Soak with seed %d: %d phases of %d operations, key range %d%n",
+                SEED, phases, PHASE_LENGTH, KEY_RANGE);
+        for (int s = 0; s < subjects.length; s++) {
+            System.out.printf("  %-30s %,14d ops/sec, peak size %,d%n", subjects[s].name(),
+                    (long) (operations[s] / (nanos[s] / 1e9)), peaks[s]);
+        }
+    }
+
+}
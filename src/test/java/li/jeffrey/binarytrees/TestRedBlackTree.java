@@ -3,6 +3,14 @@ package li.jeffrey.binarytrees;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestRedBlackTree {
@@ -66,4 +74,100 @@ public class TestRedBlackTree {
         assertEquals(test.height(), 3);
     }
 
+    @Test
+    public void testInsertAllJoin() {
+        for (int i = 0; i < 20; i += 2) {
+            test.insert(i);
+        }
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = 0; i < 50; i += 3) {
+            batch.add(i);
+        }
+        assertEquals(test.insertAll(batch), 13);
+        assertEquals(test.size(), 23);
+        assertTrue(test.isValid());
+        Iterator<Integer> iterator = test.traverse("INORDER");
+        int previous = -1;
+        while (iterator.hasNext()) {
+            int value = iterator.next();
+            assertTrue(value > previous);
+            assertTrue(value % 2 == 0 || value % 3 == 0);
+            previous = value;
+        }
+        // Trees and batches of every size up to 64 against each other, so that every black height difference joins
+        Random random = new Random(7);
+        for (int n = 0; n < 64; n++) {
+            for (int k = 0; k < 64; k += 7) {
+                RedBlackTree<Integer> tree = new RedBlackTree<Integer>();
+                TreeSet<Integer> expected = new TreeSet<Integer>();
+                for (int i = 0; i < n; i++) {
+                    int key = random.nextInt(128);
+                    tree.insert(key);
+                    expected.add(key);
+                }
+                TreeSet<Integer> keys = new TreeSet<Integer>();
+                for (int i = 0; i < k; i++) {
+                    keys.add(random.nextInt(128));
+                }
+                int before = expected.size();
+                expected.addAll(keys);
+                assertEquals(tree.insertAll(new ArrayList<Integer>(keys)), expected.size() - before);
+                assertEquals(tree.size(), expected.size());
+                assertTrue(tree.isValid());
+                assertEquals(tree.inOrderList(), new ArrayList<Integer>(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testContainsAll() {
+        for (int i = 0; i < 100; i += 5) {
+            test.insert(i);
+        }
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = -10; i < 110; i++) {
+            batch.add(i);
+        }
+        BitSet result = test.containsAll(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(result.get(i), test.contains(batch.get(i)));
+        }
+        assertEquals(result.cardinality(), 20);
+    }
+
+    @Test
+    public void testInsertAll() {
+        for (int i = 0; i < 1000; i += 2) {
+            test.insert(i);
+        }
+        assertEquals(test.insertAll(Arrays.asList(1, 2, 3, 3)), 2);
+        assertTrue(test.isValid());
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(i);
+        }
+        assertEquals(test.insertAll(batch), 498);
+        assertEquals(test.size(), 1000);
+        assertTrue(test.isValid());
+    }
+
+    @Test
+    public void testMemoryStats() {
+        assertEquals(test.memoryStats().getNodeCount(), 0);
+        test.insert(0);
+        test.insert(1);
+        test.insert(2);
+        test.insert(4);
+        MemoryStats stats = test.memoryStats();
+        assertEquals(stats.getNodeCount(), 4);
+        assertEquals(stats.getHeight(), test.height());
+        assertEquals(stats.getAverageDepth(), 2.0);
+        assertEquals(stats.getKeyBytes(), 0);
+        assertTrue(stats.isColored());
+        assertEquals(stats.getRedCount(), 1);
+        assertEquals(stats.getBlackCount(), 3);
+        assertEquals(stats.getRedBlackRatio(), 1.0 / 3);
+        assertEquals(stats.getBytesPerNode(), stats.isCompressedOops() ? 32 : 56);
+    }
+
 }
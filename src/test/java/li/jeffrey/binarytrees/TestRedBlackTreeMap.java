@@ -0,0 +1,157 @@
+package li.jeffrey.binarytrees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRedBlackTreeMap {
+
+    RedBlackTreeMap<Integer, String> test;
+
+    @BeforeEach
+    public void setup() {
+        test = new RedBlackTreeMap<Integer, String>();
+    }
+
+    @Test
+    public void testPut() {
+        assertNull(test.put(0, "a"));
+        assertNull(test.put(5, "b"));
+        assertEquals(test.put(0, "c"), "a");
+        assertEquals(test.size(), 2);
+        assertThrows(NullPointerException.class, () -> test.put(null, "d"));
+    }
+
+    @Test
+    public void testGet() {
+        assertNull(test.get(5));
+        test.put(0, "a");
+        test.put(5, "b");
+        test.put(10, "c");
+        assertEquals(test.get(5), "b");
+        assertEquals(test.get(10), "c");
+        assertNull(test.get(7));
+        assertNull(test.get(null));
+        assertTrue(test.containsKey(0));
+    }
+
+    @Test
+    public void testRemove() {
+        test.put(0, "a");
+        test.put(2, "b");
+        test.put(-1, "c");
+        assertEquals(test.remove(0), "a");
+        assertNull(test.remove(0));
+        assertEquals(test.remove(-1), "c");
+        assertEquals(test.remove(2), "b");
+        assertTrue(test.isEmpty());
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        assertEquals(test.computeIfAbsent(3, k -> "x" + k), "x3");
+        assertEquals(test.computeIfAbsent(3, k -> "y" + k), "x3");
+        assertNull(test.computeIfAbsent(4, k -> null));
+        assertFalse(test.containsKey(4));
+        assertEquals(test.size(), 1);
+        for (int i = 0; i < 100; i++) {
+            test.computeIfAbsent(i, k -> k % 3 == 0 ? null : "z" + k);
+            assertTrue(test.isValid());
+        }
+        assertEquals(test.size(), 67);
+        assertEquals(test.get(3), "x3");
+        assertEquals(test.get(50), "z50");
+        assertThrows(IllegalStateException.class, () -> test.computeIfAbsent(200, k -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(test.containsKey(200));
+        assertEquals(test.size(), 67);
+        assertTrue(test.isValid());
+    }
+
+    @Test
+    public void testFunctionsModifyingMap() {
+        // A removal inside the function can move keys between nodes, including the one being computed or merged
+        for (int n = 2; n < 40; n++) {
+            for (int removed = 0; removed < n; removed++) {
+                RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<Integer, String>();
+                for (int i = 0; i < n; i++) {
+                    map.put(i, "v" + i);
+                }
+                int other = removed;
+                assertEquals(map.computeIfAbsent(n, k -> {
+                    assertFalse(map.containsKey(k));
+                    map.remove(other);
+                    return "NEW";
+                }), "NEW");
+                assertEquals(map.get(n), "NEW");
+                assertFalse(map.containsKey(removed));
+                assertEquals(map.size(), n);
+                assertTrue(map.isValid());
+
+                int merged = (removed + 1) % n;
+                map.put(removed, "back");
+                assertEquals(map.merge(merged, "b", (a, b) -> {
+                    map.remove(other);
+                    return a + b;
+                }), "v" + merged + "b");
+                assertEquals(map.get(merged), "v" + merged + "b");
+                assertFalse(map.containsKey(removed));
+                assertEquals(map.size(), n);
+                assertTrue(map.isValid());
+            }
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        assertEquals(test.merge(1, "a", String::concat), "a");
+        assertEquals(test.merge(1, "b", String::concat), "ab");
+        assertNull(test.merge(1, "c", (a, b) -> null));
+        assertFalse(test.containsKey(1));
+    }
+
+    @Test
+    public void testComparator() {
+        RedBlackTreeMap<String, Integer> map = new RedBlackTreeMap<String, Integer>(Comparator.reverseOrder());
+        map.put("a", 1);
+        map.put("c", 3);
+        map.put("b", 2);
+        Iterator<Map.Entry<String, Integer>> iterator = map.entryIterator();
+        assertEquals(iterator.next().getKey(), "c");
+        assertEquals(iterator.next().getKey(), "b");
+        assertEquals(iterator.next().getKey(), "a");
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testRandomAgainstTreeMap() {
+        Random random = new Random(28);
+        TreeMap<Integer, String> reference = new TreeMap<Integer, String>();
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), test.remove(key));
+            } else {
+                assertEquals(reference.put(key, "v" + i), test.put(key, "v" + i));
+            }
+            assertTrue(test.isValid());
+        }
+        assertEquals(test.size(), reference.size());
+        Iterator<Map.Entry<Integer, String>> iterator = test.entryIterator();
+        for (Map.Entry<Integer, String> entry : reference.entrySet()) {
+            Map.Entry<Integer, String> actual = iterator.next();
+            assertEquals(entry.getKey(), actual.getKey());
+            assertEquals(entry.getValue(), actual.getValue());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+}
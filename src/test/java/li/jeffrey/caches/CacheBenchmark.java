@@ -0,0 +1,114 @@
+package li.jeffrey.caches;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the throughput of Cache against an access ordered LinkedHashMap LRU, both single threaded and shared by
+ * several threads behind a lock. Keys are skewed so that a small set of hot keys takes most of the traffic.
+ * Run with: java -cp target/classes:target/test-classes li.jeffrey.caches.CacheBenchmark [threads] [seconds]
+ */
+public class CacheBenchmark {
+
+    private static final int CAPACITY = 10_000;
+    private static final int KEY_SPACE = 50_000;
+    private static final int KEYS = 1 << 20;
+
+    private interface Target {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    private static class LinkedHashMapLRU extends LinkedHashMap<Integer, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private LinkedHashMapLRU() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+            return size() > CAPACITY;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int[] keys = skewedKeys(new Random(30));
+
+        for (int round = 0; round < 2; round++) {
+            String label = round == 0 ? "warmup" : "measure";
+            for (int t : new int[]{1, threads}) {
+                Map<Integer, Integer> map = Collections.synchronizedMap(new LinkedHashMapLRU());
+                report(label, "LinkedHashMap LRU", t, run(new Target() {
+                    public Integer get(Integer key) {
+                        return map.get(key);
+                    }
+
+                    public void put(Integer key, Integer value) {
+                        map.put(key, value);
+                    }
+                }, keys, t, seconds));
+
+                for (Cache.EvictionPolicy policy : Cache.EvictionPolicy.values()) {
+                    Cache<Integer, Integer> cache = new Cache<Integer, Integer>(CAPACITY, policy, 0, 16);
+                    report(label, "Cache " + policy, t, run(new Target() {
+                        public Integer get(Integer key) {
+                            return cache.get(key);
+                        }
+
+                        public void put(Integer key, Integer value) {
+                            cache.put(key, value);
+                        }
+                    }, keys, t, seconds));
+                }
+            }
+        }
+    }
+
+    private static int[] skewedKeys(Random random) {
+        int[] keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            // Squaring a uniform value puts most of the mass on small keys
+            double u = random.nextDouble();
+            keys[i] = (int) (u * u * KEY_SPACE);
+        }
+        return keys;
+    }
+
+    private static long run(Target target, int[] keys, int threads, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[] counts = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                int i = id * (KEYS / threads);
+                long ops = 0;
+                while ((ops & 1023) != 0 || System.nanoTime() < deadline) {
+                    Integer key = keys[i++ & (KEYS - 1)];
+                    if (target.get(key) == null) {
+                        target.put(key, key);
+                    }
+                    ops++;
+                }
+                counts[id] = ops;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += counts[t];
+        }
+        return total / seconds;
+    }
+
+    private static void report(String label, String name, int threads, long opsPerSecond) {
+        System.out.printf("%-8s %-20s threads=%-3d %,14d ops/sec%n", label, name, threads, opsPerSecond);
+    }
+}
@@ -0,0 +1,116 @@
+package li.jeffrey.caches;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCache {
+
+    @Test
+    public void testGetAndPut() {
+        Cache<Integer, String> test = new Cache<Integer, String>(10);
+        assertNull(test.put(1, "a"));
+        assertEquals(test.put(1, "b"), "a");
+        assertEquals(test.get(1), "b");
+        assertNull(test.get(2));
+        assertEquals(test.size(), 1);
+        assertEquals(test.hitCount(), 1);
+        assertEquals(test.missCount(), 1);
+        assertEquals(test.remove(1), "b");
+        assertTrue(test.isEmpty());
+    }
+
+    @Test
+    public void testLeastRecentlyUsed() {
+        Cache<Integer, String> test = new Cache<Integer, String>(3, Cache.EvictionPolicy.LRU);
+        test.put(1, "a");
+        test.put(2, "b");
+        test.put(3, "c");
+        test.get(1);
+        test.put(4, "d");
+        assertNull(test.get(2));
+        assertEquals(test.get(1), "a");
+        assertEquals(test.get(3), "c");
+        assertEquals(test.get(4), "d");
+        assertEquals(test.evictionCount(), 1);
+    }
+
+    @Test
+    public void testLeastFrequentlyUsed() {
+        Cache<Integer, String> test = new Cache<Integer, String>(3, Cache.EvictionPolicy.LFU);
+        test.put(1, "a");
+        test.put(2, "b");
+        test.put(3, "c");
+        test.get(1);
+        test.get(1);
+        test.get(2);
+        test.get(3);
+        test.put(4, "d");
+        // 2 and 3 were both used twice, 2 less recently
+        assertNull(test.get(2));
+        test.put(5, "e");
+        assertNull(test.get(4));
+        assertEquals(test.get(1), "a");
+        assertEquals(test.get(3), "c");
+        assertEquals(test.get(5), "e");
+        assertEquals(test.evictionCount(), 2);
+    }
+
+    @Test
+    public void testUnevenCapacity() {
+        Cache<Integer, Integer> lru = new Cache<Integer, Integer>(5, Cache.EvictionPolicy.LRU, 0, 4);
+        Cache<Integer, Integer> lfu = new Cache<Integer, Integer>(3, Cache.EvictionPolicy.LFU, 0, 2);
+        for (int i = 0; i < 1000; i++) {
+            lru.put(i, i);
+            lfu.put(i, i);
+            assertTrue(lru.size() <= 5);
+            assertTrue(lfu.size() <= 3);
+        }
+        assertEquals(lru.size(), 5);
+        assertEquals(lfu.size(), 3);
+    }
+
+    @Test
+    public void testTimeToLive() {
+        AtomicLong now = new AtomicLong();
+        Cache<Integer, String> test = new Cache<Integer, String>(10, Cache.EvictionPolicy.LRU, 100, 1, now::get);
+        test.put(1, "a");
+        now.addAndGet(50);
+        test.put(2, "b");
+        assertEquals(test.get(1), "a");
+        now.addAndGet(60);
+        assertNull(test.get(1));
+        assertEquals(test.get(2), "b");
+        test.put(2, "c");
+        now.addAndGet(60);
+        assertEquals(test.get(2), "c");
+        now.addAndGet(100);
+        assertEquals(test.size(), 0);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        Cache<Integer, Integer> test = new Cache<Integer, Integer>(1000, Cache.EvictionPolicy.LRU, 0, 8);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    int key = (i * 7 + offset) % 2000;
+                    if (test.get(key) == null) {
+                        test.put(key, key);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(test.size() <= 1000);
+        assertEquals(test.hitCount() + test.missCount(), 40000);
+    }
+
+}
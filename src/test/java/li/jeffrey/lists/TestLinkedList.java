@@ -0,0 +1,75 @@
+package li.jeffrey.lists;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLinkedList {
+
+    LinkedList<Integer> test;
+
+    @BeforeEach
+    public void setup() {
+        test = new LinkedList<Integer>();
+    }
+
+    private void assertOrder(int... expected) {
+        Iterator<Integer> iterator = test.iterator();
+        for (int value : expected) {
+            assertEquals(iterator.next(), value);
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(test.size(), expected.length);
+    }
+
+    @Test
+    public void testAdd() {
+        test.addFirst(1);
+        test.addLast(2);
+        LinkedList.Node<Integer> node = test.addFirst(0);
+        test.addAfter(node, 5);
+        assertOrder(0, 5, 1, 2);
+    }
+
+    @Test
+    public void testRemove() {
+        LinkedList.Node<Integer> zero = test.addLast(0);
+        LinkedList.Node<Integer> one = test.addLast(1);
+        test.addLast(2);
+        assertEquals(test.remove(one), 1);
+        assertOrder(0, 2);
+        assertThrows(IllegalArgumentException.class, () -> test.remove(one));
+        assertEquals(test.removeLast(), 2);
+        assertEquals(test.removeFirst(), 0);
+        assertTrue(test.isEmpty());
+        assertNull(zero.getNext());
+        assertThrows(NoSuchElementException.class, () -> test.removeFirst());
+    }
+
+    @Test
+    public void testMove() {
+        test.addLast(0);
+        LinkedList.Node<Integer> one = test.addLast(1);
+        test.addLast(2);
+        test.moveToFront(one);
+        assertOrder(1, 0, 2);
+        test.moveToBack(one);
+        assertOrder(0, 2, 1);
+        assertEquals(test.last(), one);
+        assertEquals(one.getPrevious().getData(), 2);
+        assertNull(one.getNext());
+    }
+
+    @Test
+    public void testForeignNode() {
+        LinkedList<Integer> other = new LinkedList<Integer>();
+        LinkedList.Node<Integer> node = other.addFirst(0);
+        assertThrows(IllegalArgumentException.class, () -> test.remove(node));
+        assertThrows(IllegalArgumentException.class, () -> test.moveToFront(node));
+    }
+
+}
@@ -0,0 +1,76 @@
+package li.jeffrey.radixtrees;
+
+import li.jeffrey.binarytrees.RedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares lookups in AdaptiveRadixTree against RedBlackTree&lt;String&gt; for URL path like keys that share long
+ * prefixes. Run with: java -cp target/classes:target/test-classes li.jeffrey.radixtrees.RadixTreeBenchmark [keys]
+ */
+public class RadixTreeBenchmark {
+
+    private static final String[] SEGMENTS = {"api", "v1", "v2", "internal", "customers", "orders", "invoices",
+            "shipments", "payments", "settings", "history", "attachments"};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(31);
+        List<String> keys = new ArrayList<String>(count);
+        while (keys.size() < count) {
+            StringBuilder key = new StringBuilder("https://service.example.com");
+            for (int i = 0; i < 4; i++) {
+                key.append('/').append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            }
+            key.append('/').append(random.nextInt(1_000_000));
+            keys.add(key.toString());
+        }
+        List<String> probes = new ArrayList<String>(keys);
+        Collections.shuffle(probes, random);
+        for (int i = 0; i < probes.size(); i += 2) {
+            // Half of the probes miss only at the very last character
+            probes.set(i, probes.get(i) + "x");
+        }
+
+        AdaptiveRadixTree art = new AdaptiveRadixTree();
+        RedBlackTree<String> rbt = new RedBlackTree<String>();
+        long start = System.nanoTime();
+        for (String key : keys) {
+            art.add(key);
+        }
+        report("AdaptiveRadixTree add", keys.size(), System.nanoTime() - start);
+        start = System.nanoTime();
+        for (String key : keys) {
+            rbt.insert(key);
+        }
+        report("RedBlackTree add", keys.size(), System.nanoTime() - start);
+
+        for (int round = 0; round < 5; round++) {
+            int found = 0;
+            start = System.nanoTime();
+            for (String probe : probes) {
+                if (art.contains(probe)) {
+                    found++;
+                }
+            }
+            report("AdaptiveRadixTree contains", probes.size(), System.nanoTime() - start);
+            start = System.nanoTime();
+            for (String probe : probes) {
+                if (rbt.contains(probe)) {
+                    found--;
+                }
+            }
+            report("RedBlackTree contains", probes.size(), System.nanoTime() - start);
+            if (found != 0) {
+                throw new IllegalStateException("Trees disagree on " + found + " keys");
+            }
+        }
+    }
+
+    private static void report(String name, int operations, long nanos) {
+        System.out.printf("%-28s %,12d ops/sec%n", name, (long) (operations / (nanos / 1e9)));
+    }
+}
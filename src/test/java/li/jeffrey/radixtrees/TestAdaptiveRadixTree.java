@@ -0,0 +1,155 @@
+package li.jeffrey.radixtrees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAdaptiveRadixTree {
+
+    AdaptiveRadixTree test;
+
+    @BeforeEach
+    public void setup() {
+        test = new AdaptiveRadixTree();
+    }
+
+    @Test
+    public void testAdd() {
+        assertTrue(test.add("/users"));
+        assertTrue(test.add("/users/1"));
+        assertTrue(test.add("/user"));
+        assertTrue(test.add(""));
+        assertFalse(test.add("/users"));
+        assertFalse(test.add((String) null));
+        assertEquals(test.size(), 4);
+    }
+
+    @Test
+    public void testRemove() {
+        test.add("/users");
+        test.add("/users/1");
+        test.add("/user");
+        assertTrue(test.remove("/users"));
+        assertFalse(test.remove("/users"));
+        assertFalse(test.remove("/use"));
+        assertTrue(test.contains("/users/1"));
+        assertTrue(test.contains("/user"));
+        assertTrue(test.remove("/users/1"));
+        assertTrue(test.remove("/user"));
+        assertTrue(test.isEmpty());
+        assertEquals(test.height(), 0);
+    }
+
+    @Test
+    public void testContains() {
+        test.add("/api/v1/orders");
+        test.add("/api/v1/order");
+        test.add("/api/v2/orders");
+        assertTrue(test.contains("/api/v1/orders"));
+        assertTrue(test.contains("/api/v1/order"));
+        assertFalse(test.contains("/api/v1/"));
+        assertFalse(test.contains("/api/v1/ordersx"));
+        assertFalse(test.contains("/api/v3/orders"));
+    }
+
+    @Test
+    public void testByteKeys() {
+        assertTrue(test.add(new byte[]{'/', 'a', 'p', 'i'}));
+        assertTrue(test.add(new byte[]{'a'}));
+        assertTrue(test.contains(new byte[]{'/', 'a', 'p', 'i'}));
+        assertFalse(test.contains("/api"));
+        Iterator<byte[]> keys = test.keys();
+        assertArrayEquals(keys.next(), new byte[]{'/', 'a', 'p', 'i'});
+        assertArrayEquals(keys.next(), new byte[]{'a'});
+        assertFalse(keys.hasNext());
+        // An odd length key cannot be a String, so traverse() refuses it instead of inventing one
+        Iterator<String> iterator = test.traverse("INORDER");
+        iterator.next();
+        assertThrows(IllegalStateException.class, iterator::next);
+    }
+
+    @Test
+    public void testUnpairedSurrogates() {
+        assertTrue(test.add("a\uD800"));
+        assertFalse(test.contains("a?"));
+        assertTrue(test.add("a\uDC00"));
+        assertTrue(test.add("a\uD83D\uDE00"));
+        assertTrue(test.add("a\uFFFF"));
+        assertFalse(test.add("a\uD800"));
+        assertEquals(test.size(), 4);
+        Iterator<String> iterator = test.traverse("INORDER");
+        assertEquals(iterator.next(), "a\uD800");
+        assertEquals(iterator.next(), "a\uD83D\uDE00");
+        assertEquals(iterator.next(), "a\uDC00");
+        assertEquals(iterator.next(), "a\uFFFF");
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testNodeGrowthAndShrink() {
+        for (int i = 0; i < 256; i++) {
+            assertTrue(test.add(new byte[]{'k', (byte) i}));
+        }
+        assertEquals(test.size(), 256);
+        assertEquals(test.height(), 2);
+        for (int i = 0; i < 256; i++) {
+            assertTrue(test.contains(new byte[]{'k', (byte) i}));
+        }
+        for (int i = 0; i < 255; i++) {
+            assertTrue(test.remove(new byte[]{'k', (byte) i}));
+        }
+        assertEquals(test.height(), 1);
+        assertTrue(test.contains(new byte[]{'k', (byte) 255}));
+    }
+
+    @Test
+    public void testInOrderTraversal() {
+        String[] keys = {"b", "a", "ab", "abc", "", "abd", "b/c", "zz"};
+        for (String key : keys) {
+            test.add(key);
+        }
+        Iterator<String> iterator = test.traverse("INORDER");
+        for (String expected : new TreeSet<String>(List.of(keys))) {
+            assertEquals(iterator.next(), expected);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testRandomAgainstTreeSet() {
+        Random random = new Random(31);
+        TreeSet<String> reference = new TreeSet<String>();
+        String[] segments = {"api", "v1", "v2", "users", "orders", "a", "b", ""};
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder key = new StringBuilder();
+            int parts = random.nextInt(5);
+            for (int j = 0; j < parts; j++) {
+                key.append('/').append(segments[random.nextInt(segments.length)]);
+                if (random.nextInt(4) == 0) {
+                    key.append(random.nextInt(300));
+                }
+            }
+            String k = key.toString();
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(k), test.remove(k));
+            } else {
+                assertEquals(reference.add(k), test.add(k));
+            }
+        }
+        assertEquals(test.size(), reference.size());
+        List<String> actual = new ArrayList<String>();
+        test.traverse("INORDER").forEachRemaining(actual::add);
+        assertEquals(new ArrayList<String>(reference), actual);
+        for (String key : reference) {
+            assertTrue(test.contains(key));
+        }
+    }
+
+}